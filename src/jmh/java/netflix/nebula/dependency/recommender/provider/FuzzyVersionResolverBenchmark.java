@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks modules up in a resolver holding 1,000 exact recommendations and <code>globs</code> globs: an exact match, a
+ * match on the last glob, a module recommended through two aliases, and a module nothing matches. Glob matches and
+ * misses are remembered after the first lookup, so <code>globScan</code> looks up a new module every time.
+ * <code>buildIndex</code> measures the first lookup, which indexes every recommendation and resolves the aliases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FuzzyVersionResolverBenchmark {
+    @Param({"10", "100", "1000", "5000"})
+    int globs;
+
+    private Map<String, String> recommendations;
+    private FuzzyVersionResolver resolver;
+    private String globGroup;
+    private int scanned;
+
+    @Setup
+    public void createResolver() {
+        recommendations = new HashMap<>(SyntheticRecommendations.exact(1000));
+        recommendations.putAll(SyntheticRecommendations.globs(globs));
+        recommendations.put("example.alias:module", "$ALIAS_VERSION");
+        recommendations.put("ALIAS_VERSION", "$" + SyntheticRecommendations.group(0) + ":" + SyntheticRecommendations.name(0));
+        resolver = resolver(recommendations);
+
+        // the last glob of the whole group shape
+        int last = globs - 1 - (globs - 1) % 3;
+        globGroup = "example.glob" + last;
+        if (resolver.versionOf(globGroup, "anything") == null) {
+            throw new IllegalStateException(globGroup + " should match a glob");
+        }
+    }
+
+    @Benchmark
+    public String exactMatch() {
+        return resolver.versionOf(SyntheticRecommendations.group(500), SyntheticRecommendations.name(500));
+    }
+
+    @Benchmark
+    public String globMatch() {
+        return resolver.versionOf(globGroup, "anything");
+    }
+
+    @Benchmark
+    public String globScan() {
+        return resolver.versionOf(globGroup, "module" + scanned++);
+    }
+
+    @Benchmark
+    public String aliasMatch() {
+        return resolver.versionOf("example.alias", "module");
+    }
+
+    @Benchmark
+    public String noMatch() {
+        return resolver.versionOf("example.unknown", "unknown");
+    }
+
+    @Benchmark
+    public String buildIndex() {
+        return resolver(recommendations).versionOf("example.unknown", "unknown");
+    }
+
+    private static FuzzyVersionResolver resolver(final Map<String, String> recommendations) {
+        return new FuzzyVersionResolver() {
+            @Override
+            protected Collection<String> propertyNames() {
+                return recommendations.keySet();
+            }
+
+            @Override
+            protected String propertyValue(String name) {
+                return recommendations.get(name);
+            }
+        };
+    }
+}
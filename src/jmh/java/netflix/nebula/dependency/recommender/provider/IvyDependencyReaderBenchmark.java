@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import groovy.xml.XmlSlurper;
+import groovy.xml.slurpersupport.GPathResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the dependencies of an ivy.xml of <code>modules</code> modules with the streaming reader, and with the
+ * <code>XmlSlurper</code> tree walk it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IvyDependencyReaderBenchmark {
+    @Param({"100", "1000", "10000"})
+    int modules;
+
+    private byte[] ivyXml;
+
+    @Setup
+    public void createIvyXml() throws Exception {
+        ivyXml = SyntheticRecommendations.ivyXml(modules);
+        if (!stax().equals(xmlSlurper())) {
+            throw new IllegalStateException("The readers disagree");
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> stax() throws Exception {
+        return IvyDependencyReader.read(new ByteArrayInputStream(ivyXml));
+    }
+
+    /**
+     * <code>ivy.dependencies.dependency.each { d -&gt; ... }</code>, as the provider used to read them.
+     */
+    @Benchmark
+    public Map<String, String> xmlSlurper() throws Exception {
+        GPathResult ivy = new XmlSlurper().parse(new ByteArrayInputStream(ivyXml));
+        GPathResult dependencies = (GPathResult) ((GPathResult) ivy.getProperty("dependencies")).getProperty("dependency");
+        Map<String, String> versions = new LinkedHashMap<>();
+        for (Iterator<?> it = dependencies.iterator(); it.hasNext(); ) {
+            GPathResult d = (GPathResult) it.next();
+            versions.put(attribute(d, "org") + ":" + attribute(d, "name"), attribute(d, "rev"));
+        }
+        return versions;
+    }
+
+    private static String attribute(GPathResult element, String name) {
+        return ((GPathResult) element.getProperty("@" + name)).text();
+    }
+}
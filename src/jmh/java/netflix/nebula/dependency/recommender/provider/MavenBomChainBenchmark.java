@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the recommendations of a BOM that inherits its managed dependencies from a chain of <code>depth</code> parent
+ * POMs, each managing <code>dependencies</code> modules, from a local file-based Maven repository. Unless
+ * <code>cached</code>, every invocation gives the BOM a new content hash so the whole chain is built again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MavenBomChainBenchmark {
+    @Param({"1", "4", "8"})
+    int depth;
+
+    @Param({"100", "1000"})
+    int dependencies;
+
+    @Param({"false", "true"})
+    boolean cached;
+
+    private Project project;
+    private SyntheticMavenRepo repo;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void createProject() throws Exception {
+        System.setProperty("nebula.dependency-recommender.bomCache.enabled", "false");
+
+        File projectDir = Files.createTempDirectory("bom-chain-benchmark").toFile();
+        repo = new SyntheticMavenRepo(new File(projectDir, "repo"));
+        String bom = repo.writeBom("bom", depth, dependencies, "0");
+
+        project = ProjectBuilder.builder().withProjectDir(projectDir).build();
+        project.getPluginManager().apply("java");
+        project.getPluginManager().apply(DependencyRecommendationsPlugin.class);
+        project.getRepositories().maven(maven -> maven.setUrl(repo.getRoot().toURI()));
+        project.getDependencies().add(DependencyRecommendationsPlugin.NEBULA_RECOMMENDER_BOM, bom + "@pom");
+    }
+
+    @Setup(Level.Invocation)
+    public void changeBom() throws Exception {
+        if (!cached) {
+            repo.writeBom("bom", depth, dependencies, String.valueOf(++invocation));
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> getMavenRecommendations() throws Exception {
+        return new MavenBomRecommendationProvider(project, DependencyRecommendationsPlugin.NEBULA_RECOMMENDER_BOM).getMavenRecommendations();
+    }
+}
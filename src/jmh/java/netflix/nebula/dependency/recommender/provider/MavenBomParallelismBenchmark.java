@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds <code>bomCount</code> BOMs, each with a chain of parent POMs, serially (<code>parallelism</code> = 1) and on
+ * the shared pool. Every invocation gives the BOMs a new content hash so none of them is served from a cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MavenBomParallelismBenchmark {
+    @Param({"1", "2", "4", "8"})
+    int bomCount;
+
+    @Param({"1", "4"})
+    int parallelism;
+
+    private Project project;
+    private SyntheticMavenRepo repo;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void createProject() throws Exception {
+        System.setProperty("nebula.dependency-recommender.bomCache.enabled", "false");
+        System.setProperty("nebula.dependency-recommender.bomParallelism", String.valueOf(parallelism));
+
+        File projectDir = Files.createTempDirectory("bom-benchmark").toFile();
+        repo = new SyntheticMavenRepo(new File(projectDir, "repo"));
+        List<String> boms = new ArrayList<>();
+        for (int i = 0; i < bomCount; i++) {
+            boms.add(repo.writeBom("bom" + i, 3, 200, "0"));
+        }
+
+        project = ProjectBuilder.builder().withProjectDir(projectDir).build();
+        project.getPluginManager().apply("java");
+        project.getPluginManager().apply(DependencyRecommendationsPlugin.class);
+        project.getRepositories().maven(maven -> maven.setUrl(repo.getRoot().toURI()));
+        for (String bom : boms) {
+            project.getDependencies().add(DependencyRecommendationsPlugin.NEBULA_RECOMMENDER_BOM, bom + "@pom");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void changeBoms() throws Exception {
+        invocation++;
+        for (int i = 0; i < bomCount; i++) {
+            repo.writeBom("bom" + i, 3, 200, String.valueOf(invocation));
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> buildBoms() throws Exception {
+        return new MavenBomRecommendationProvider(project, DependencyRecommendationsPlugin.NEBULA_RECOMMENDER_BOM).getMavenRecommendations();
+    }
+}
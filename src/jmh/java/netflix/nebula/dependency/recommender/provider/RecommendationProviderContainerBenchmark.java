@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin;
+import org.gradle.api.Project;
+import org.gradle.testfixtures.ProjectBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks modules up through a container of <code>providers</code> stacked map providers of 1,000 recommendations each,
+ * before and after the container is frozen. The module found is only recommended by the provider added first, so
+ * every provider is asked in turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecommendationProviderContainerBenchmark {
+    @Param({"1", "4", "16"})
+    int providers;
+
+    @Param({"false", "true"})
+    boolean frozen;
+
+    private RecommendationProviderContainer container;
+
+    @Setup
+    public void createContainer() {
+        Project project = ProjectBuilder.builder().build();
+        project.getPluginManager().apply("java");
+        project.getPluginManager().apply(DependencyRecommendationsPlugin.class);
+        container = project.getExtensions().getByType(RecommendationProviderContainer.class);
+
+        for (int i = 0; i < providers; i++) {
+            Map<String, String> recommendations = i == 0 ? SyntheticRecommendations.exact(1000) : otherModules(i);
+            Map<String, Object> args = new LinkedHashMap<>();
+            args.put("recommendations", recommendations);
+            container.map(args);
+        }
+        if (frozen) {
+            container.freeze();
+        }
+    }
+
+    private static Map<String, String> otherModules(int provider) {
+        Map<String, String> recommendations = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            recommendations.put("example.provider" + provider + ":" + SyntheticRecommendations.name(i), SyntheticRecommendations.version(i));
+        }
+        return recommendations;
+    }
+
+    @Benchmark
+    public String recommended() {
+        return container.getRecommendedVersion(SyntheticRecommendations.group(500), SyntheticRecommendations.name(500));
+    }
+
+    @Benchmark
+    public String notRecommended() {
+        return container.getRecommendedVersion("example.unknown", "unknown");
+    }
+}
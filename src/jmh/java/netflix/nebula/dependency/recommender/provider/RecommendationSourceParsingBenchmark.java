@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a properties file, a dependency lock and an ivy.xml recommending <code>modules</code> modules from memory and
+ * makes the first lookup, which is what a build pays for each file based provider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecommendationSourceParsingBenchmark {
+    @Param({"100", "1000", "10000"})
+    int modules;
+
+    private byte[] propertiesFile;
+    private byte[] dependencyLock;
+    private byte[] gradleLockfile;
+    private byte[] ivyXml;
+    private String group;
+    private String name;
+
+    @Setup
+    public void createSources() {
+        propertiesFile = SyntheticRecommendations.propertiesFile(modules);
+        dependencyLock = SyntheticRecommendations.dependencyLock(modules);
+        gradleLockfile = SyntheticRecommendations.gradleLockfile(modules);
+        ivyXml = SyntheticRecommendations.ivyXml(modules);
+        group = SyntheticRecommendations.group(modules / 2);
+        name = SyntheticRecommendations.name(modules / 2);
+    }
+
+    @Benchmark
+    public String propertiesFile() throws Exception {
+        PropertyFileRecommendationProvider provider = new PropertyFileRecommendationProvider(null);
+        provider.setInputStream(new ByteArrayInputStream(propertiesFile));
+        return provider.getVersion(group, name);
+    }
+
+    @Benchmark
+    public String dependencyLock() throws Exception {
+        DependencyLockProvider provider = new DependencyLockProvider();
+        provider.setInputStream(new ByteArrayInputStream(dependencyLock));
+        return provider.getVersion(group, name);
+    }
+
+    @Benchmark
+    public String gradleLockfile() throws Exception {
+        DependencyLockProvider provider = new DependencyLockProvider();
+        provider.setInputStream(new ByteArrayInputStream(gradleLockfile));
+        return provider.getVersion(group, name);
+    }
+
+    @Benchmark
+    public String ivyXml() throws Exception {
+        IvyRecommendationProvider provider = new IvyRecommendationProvider(null);
+        provider.setInputStream(new ByteArrayInputStream(ivyXml));
+        return provider.getVersion(group, name);
+    }
+}
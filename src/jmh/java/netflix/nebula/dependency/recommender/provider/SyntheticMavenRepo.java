@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes BOMs into a local file-based Maven repository for benchmarks.
+ */
+public class SyntheticMavenRepo {
+    private final File root;
+
+    public SyntheticMavenRepo(File root) {
+        this.root = root;
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    /**
+     * Writes a BOM <code>sample:&lt;name&gt;:1.0</code> whose managed dependencies are inherited from a chain of
+     * <code>depth</code> parent POMs, each managing <code>dependencies</code> modules.
+     *
+     * @param nonce written into the BOM as a comment, so the same BOM can be given a new content hash
+     * @return the notation of the BOM
+     */
+    public String writeBom(String name, int depth, int dependencies, String nonce) throws IOException {
+        String parent = null;
+        for (int level = depth; level >= 1; level--) {
+            String artifactId = name + "-parent" + level;
+            writePom(artifactId, parent, managedDependencies(artifactId, dependencies), "");
+            parent = artifactId;
+        }
+        writePom(name, parent, managedDependencies(name, dependencies), "<!-- " + nonce + " -->");
+        return "sample:" + name + ":1.0";
+    }
+
+    private static String managedDependencies(String artifactId, int count) {
+        StringBuilder dependencies = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            dependencies.append("      <dependency>\n")
+                    .append("        <groupId>example.").append(artifactId).append("</groupId>\n")
+                    .append("        <artifactId>module").append(i).append("</artifactId>\n")
+                    .append("        <version>1.").append(i).append("</version>\n")
+                    .append("      </dependency>\n");
+        }
+        return dependencies.toString();
+    }
+
+    private void writePom(String artifactId, String parent, String dependencies, String comment) throws IOException {
+        File directory = new File(root, "sample/" + artifactId + "/1.0");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        String pom = "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n" +
+                "  " + comment + "\n" +
+                "  <modelVersion>4.0.0</modelVersion>\n" +
+                (parent == null ? "" : "  <parent>\n    <groupId>sample</groupId>\n    <artifactId>" + parent + "</artifactId>\n    <version>1.0</version>\n  </parent>\n") +
+                "  <groupId>sample</groupId>\n" +
+                "  <artifactId>" + artifactId + "</artifactId>\n" +
+                "  <version>1.0</version>\n" +
+                "  <packaging>pom</packaging>\n" +
+                "  <dependencyManagement>\n    <dependencies>\n" + dependencies + "    </dependencies>\n  </dependencyManagement>\n" +
+                "</project>\n";
+        Files.write(new File(directory, artifactId + "-1.0.pom").toPath(), pom.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates recommendation sources of a given size for benchmarks. Module <code>i</code> is
+ * <code>example.group(i / 10):module(i)</code>, recommended at version <code>1.(i)</code>, so sources of the same size
+ * recommend the same modules.
+ */
+public final class SyntheticRecommendations {
+    private SyntheticRecommendations() {
+    }
+
+    public static String group(int module) {
+        return "example.group" + (module / 10);
+    }
+
+    public static String name(int module) {
+        return "module" + module;
+    }
+
+    public static String version(int module) {
+        return "1." + module;
+    }
+
+    public static Map<String, String> exact(int modules) {
+        Map<String, String> recommendations = new LinkedHashMap<>();
+        for (int i = 0; i < modules; i++) {
+            recommendations.put(group(i) + ":" + name(i), version(i));
+        }
+        return recommendations;
+    }
+
+    /**
+     * Globs in the shapes seen in real recommendation files: a whole group, a name in any group, and a pattern with
+     * wildcards on both sides. Glob <code>i</code> covers the modules of <code>example.glob(i)</code>.
+     */
+    public static Map<String, String> globs(int count) {
+        Map<String, String> recommendations = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0:
+                    recommendations.put("example.glob" + i + ":*", "2." + i);
+                    break;
+                case 1:
+                    recommendations.put("example.glob" + i + ":lib-*", "2." + i);
+                    break;
+                default:
+                    recommendations.put("*.glob" + i + ":*-core", "2." + i);
+            }
+        }
+        return recommendations;
+    }
+
+    public static byte[] propertiesFile(int modules) {
+        StringBuilder properties = new StringBuilder("# recommendations\n");
+        for (Map.Entry<String, String> recommendation : exact(modules).entrySet()) {
+            properties.append(recommendation.getKey()).append(" = ").append(recommendation.getValue()).append('\n');
+        }
+        return bytes(properties);
+    }
+
+    /**
+     * @return a dependency lock in the original, single project format
+     */
+    public static byte[] dependencyLock(int modules) {
+        StringBuilder lock = new StringBuilder("{\n");
+        for (int i = 0; i < modules; i++) {
+            lock.append(i == 0 ? "" : ",\n")
+                    .append("  \"").append(group(i)).append(':').append(name(i)).append("\": { \"locked\": \"")
+                    .append(version(i)).append("\", \"requested\": \"1.+\" }");
+        }
+        return bytes(lock.append("\n}\n"));
+    }
+
+    /**
+     * @return a lockfile in the format of Gradle's own dependency locking
+     */
+    public static byte[] gradleLockfile(int modules) {
+        StringBuilder lock = new StringBuilder("# This is a Gradle generated file for dependency locking.\n");
+        for (int i = 0; i < modules; i++) {
+            lock.append(group(i)).append(':').append(name(i)).append(':').append(version(i))
+                    .append("=compileClasspath,runtimeClasspath\n");
+        }
+        return bytes(lock.append("empty=annotationProcessor\n"));
+    }
+
+    public static byte[] ivyXml(int modules) {
+        StringBuilder ivy = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<ivy-module version=\"2.0\">\n")
+                .append("  <info organisation=\"sample\" module=\"recommendations\" revision=\"1.0\"/>\n")
+                .append("  <dependencies>\n");
+        for (int i = 0; i < modules; i++) {
+            ivy.append("    <dependency org=\"").append(group(i)).append("\" name=\"").append(name(i))
+                    .append("\" rev=\"").append(version(i)).append("\" conf=\"compile->default\"/>\n");
+        }
+        return bytes(ivy.append("  </dependencies>\n</ivy-module>\n"));
+    }
+
+    private static byte[] bytes(CharSequence content) {
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
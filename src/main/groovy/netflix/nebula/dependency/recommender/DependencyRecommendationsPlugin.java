@@ -20,34 +20,32 @@ import kotlin.Unit;
 import kotlin.jvm.functions.Function1;
 import netflix.nebula.dependency.recommender.provider.RecommendationProviderContainer;
 import netflix.nebula.dependency.recommender.provider.RecommendationResolver;
+import netflix.nebula.dependency.recommender.provider.RecommendationStatsService;
 import netflix.nebula.dependency.recommender.publisher.MavenBomXmlGenerator;
-import org.apache.commons.lang3.StringUtils;
 import org.codehaus.groovy.runtime.MethodClosure;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
-import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyResolveDetails;
-import org.gradle.api.artifacts.DependencySet;
-import org.gradle.api.artifacts.ExternalModuleDependency;
 import org.gradle.api.artifacts.ModuleVersionSelector;
-import org.gradle.api.artifacts.ProjectDependency;
 import org.gradle.api.artifacts.ResolvableDependencies;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.api.plugins.ExtraPropertiesExtension;
-import org.gradle.internal.deprecation.DeprecationLogger;
+import org.gradle.api.provider.Provider;
 
-import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class DependencyRecommendationsPlugin implements Plugin<Project> {
     public static final String NEBULA_RECOMMENDER_BOM = "nebulaRecommenderBom";
     public static final boolean CORE_BOM_SUPPORT_ENABLED = Boolean.getBoolean("nebula.features.coreBomSupport");
     private Logger logger = Logging.getLogger(DependencyRecommendationsPlugin.class);
     private RecommendationProviderContainer recommendationProviderContainer;
+    private final Map<Project, RecommendationChain> chains = new ConcurrentHashMap<>();
     //TODO: remove this exclusion once https://github.com/gradle/gradle/issues/6750 is resolved
     private final String SCALA_ANALYSIS_CONFIGURATION_PREFIX = "incrementalScalaAnalysis";
 
@@ -69,6 +67,15 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
             enhanceDependenciesWithRecommender(project);
         }
         enhancePublicationsWithBomProducer(project);
+        registerStatsTask(project);
+        project.afterEvaluate(new Action<Project>() {
+            @Override
+            public void execute(Project p) {
+                if (recommendationProviderContainer.isPrefetch()) {
+                    recommendationProviderContainer.prefetchSources();
+                }
+            }
+        });
     }
 
     private void applyRecommendationsDirectly(final Project project, final Configuration bomConfiguration) {
@@ -87,9 +94,11 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
     }
 
     private void applyRecommendations(final Project project) {
+        final Provider<FirstOrderDependenciesService> firstOrderDependencies = FirstOrderDependenciesService.register(project);
         project.getConfigurations().all(new Action<Configuration>() {
             @Override
             public void execute(final Configuration conf) {
+                firstOrderDependencies.get().observe(conf);
                 final RecommendationStrategyFactory rsFactory = new RecommendationStrategyFactory(project);
                 if (conf.getState() == Configuration.State.UNRESOLVED) {
                     ConfigurationsKt.onResolve(conf, new Function1<ResolvableDependencies, Unit>() {
@@ -100,34 +109,44 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
                                 return Unit.INSTANCE;
                             }
 
-                            for (Dependency dependency : resolvableDependencies.getDependencies()) {
-                                applyRecommendationToDependency(rsFactory, dependency, new ArrayList<ProjectDependency>());
+                            // providers may be reconfigured until then, e.g. in afterEvaluate, and are fixed once the first configuration resolves
+                            chainOf(project).freeze();
 
-                                // if project dependency, pull all first orders and apply recommendations if missing dependency versions
-                                // dependency.getProjectConfiguration().allDependencies iterate and inspect them as well
-                            }
+                            // if project dependency, pull all first orders and apply recommendations if missing dependency versions
+                            // dependency.getProjectConfiguration().allDependencies iterate and inspect them as well
+                            firstOrderDependencies.get().inspect(conf, rsFactory.getRecommendationStrategy());
 
+                            final RecommendationDecisions decisions = new RecommendationDecisions(conf.getResolutionStrategy());
+                            final RecommendationStatsService.ProjectStats stats = recommendationProviderContainer.getStats();
+                            final LongAdder callbacks = stats == null ? null : stats.eachDependency(conf.getName());
                             conf.getResolutionStrategy().eachDependency(new Action<DependencyResolveDetails>() {
                                 @Override
                                 public void execute(DependencyResolveDetails details) {
+                                    if (callbacks != null) {
+                                        callbacks.increment();
+                                    }
                                     ModuleVersionSelector requested = details.getTarget();
 
                                     // don't interfere with the way forces trump everything
-                                    for (ModuleVersionSelector force : conf.getResolutionStrategy().getForcedModules()) {
-                                        if (requested.getGroup().equals(force.getGroup()) && requested.getName().equals(force.getName())) {
-                                            details.because("Would have recommended a version for " + requested.getGroup() + ":" + requested.getName() + ", but a force is in place");
-                                            return;
-                                        }
+                                    String forcedReason = decisions.getForcedReason(requested);
+                                    if (forcedReason != null) {
+                                        details.because(forcedReason);
+                                        return;
                                     }
-                                    RecommendationStrategy strategy = rsFactory.getRecommendationStrategy();
+                                    final RecommendationStrategy strategy = rsFactory.getRecommendationStrategy();
                                     if (strategy.canRecommendVersion(requested)) {
-                                        String version = getRecommendedVersionRecursive(project, requested);
-                                        if (strategy.recommendVersion(details, version)) {
-                                            String coordinate = requested.getGroup() + ":" + requested.getName();
-                                            String strategyText = whichStrategy(strategy);
+                                        RecommendationDecisions.Recommendation recommendation = decisions.getRecommendation(requested, module -> {
+                                            String version = getRecommendedVersionRecursive(project, module);
+                                            if (version == null) {
+                                                return RecommendationDecisions.Recommendation.NONE;
+                                            }
+                                            String coordinate = module.getGroup() + ":" + module.getName();
                                             logger.debug("Recommending version " + version + " for dependency " + coordinate);
-                                            details.because("Recommending version " + version + " for dependency " + coordinate + " via " + strategyText + "\n" +
-                                                    "\twith reasons: " + StringUtils.join(getReasonsRecursive(project), ", "));
+                                            return new RecommendationDecisions.Recommendation(version, "Recommending version " + version + " for dependency " + coordinate +
+                                                    " via " + whichStrategy(strategy) + "\n" + "\twith reasons: " + chainOf(project).getJoinedReasons());
+                                        });
+                                        if (strategy.recommendVersion(details, recommendation.version)) {
+                                            details.because(recommendation.because);
                                         } else {
                                             if (recommendationProviderContainer.isStrictMode()) {
                                                 String errorMessage = "Dependency " + details.getRequested().getGroup() + ":" + details.getRequested().getName() + " omitted version with no recommended version. General causes include a dependency being removed from the recommendation source or not applying a recommendation source to a project that depends on another project using a recommender.";
@@ -160,35 +179,16 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
         return false;
     }
 
-    private void applyRecommendationToDependency(final RecommendationStrategyFactory factory, Dependency dependency, List<ProjectDependency> visited) {
-        if (dependency instanceof ExternalModuleDependency) {
-            factory.getRecommendationStrategy().inspectDependency(dependency);
-        } else if (dependency instanceof ProjectDependency) {
-            ProjectDependency projectDependency = (ProjectDependency) dependency;
-            if (!visited.contains(projectDependency)) {
-                visited.add(projectDependency);
-                final Configuration[] configuration = new Configuration[1];
-                try {
-                    ProjectDependency.class.getMethod("getTargetConfiguration");
-                    String targetConfiguration = projectDependency.getTargetConfiguration() == null ? Dependency.DEFAULT_CONFIGURATION : projectDependency.getTargetConfiguration();
-
-                    DeprecationLogger.whileDisabled(() -> {
-                        configuration[0] = projectDependency.getDependencyProject().getConfigurations().getByName(targetConfiguration);
-                    });
-                } catch (NoSuchMethodException ignore) {
-                    try {
-                        Method method = ProjectDependency.class.getMethod("getProjectConfiguration");
-                        configuration[0] = (Configuration) method.invoke(dependency);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Unable to retrieve configuration for project dependency", e);
-                    }
-                }
-                DependencySet dependencies = configuration[0].getAllDependencies();
-                for (Dependency dep : dependencies) {
-                    applyRecommendationToDependency(factory, dep, visited);
-                }
-            }
-        }
+    private void registerStatsTask(final Project project) {
+        final Provider<RecommendationStatsService> stats = RecommendationStatsService.register(project);
+        project.getTasks().register(RecommendationStatsTask.NAME, RecommendationStatsTask.class, task -> {
+            task.getStatsService().set(stats);
+            task.usesService(stats);
+            task.getProjectPath().set(project.getPath());
+            task.getJsonReport().set(project.getLayout().getBuildDirectory().file("reports/recommendation-stats/stats.json"));
+            task.getTextReport().set(project.getLayout().getBuildDirectory().file("reports/recommendation-stats/stats.txt"));
+            task.shouldRunAfter(project.getTasks().matching(other -> !other.getName().equals(RecommendationStatsTask.NAME)));
+        });
     }
 
     protected String whichStrategy(RecommendationStrategy strategy) {
@@ -219,13 +219,7 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
      * @return the recommended version or <code>null</code>
      */
     public String getRecommendedVersionRecursive(Project project, ModuleVersionSelector mvSelector) {
-        String version = Objects.requireNonNull(project.getExtensions().findByType(RecommendationProviderContainer.class))
-                .getRecommendedVersion(mvSelector.getGroup(), mvSelector.getName());
-        if (version != null)
-            return version;
-        if (project.getParent() != null)
-            return getRecommendedVersionRecursive(project.getParent(), mvSelector);
-        return null;
+        return chainOf(project).getRecommendedVersion(mvSelector.getGroup(), mvSelector.getName());
     }
 
     /**
@@ -235,12 +229,15 @@ public class DependencyRecommendationsPlugin implements Plugin<Project> {
      * @return the recommended version or <code>null</code>
      */
     public Set<String> getReasonsRecursive(Project project) {
-        Set<String> reasons = Objects.requireNonNull(project.getExtensions().findByType(RecommendationProviderContainer.class))
-                .getReasons();
-        if (! reasons.isEmpty())
-            return reasons;
-        if (project.getParent() != null)
-            return getReasonsRecursive(project.getParent());
-        return Collections.emptySet();
+        return chainOf(project).getReasons();
+    }
+
+    private RecommendationChain chainOf(Project project) {
+        RecommendationChain chain = chains.get(project);
+        if (chain == null) {
+            chain = RecommendationChain.of(project);
+            chains.put(project, chain);
+        }
+        return chain;
     }
 }
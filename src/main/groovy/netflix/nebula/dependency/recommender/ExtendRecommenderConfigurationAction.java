@@ -15,7 +15,6 @@ import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class ExtendRecommenderConfigurationAction implements Action<Configuration> {
 
@@ -24,13 +23,14 @@ public class ExtendRecommenderConfigurationAction implements Action<Configuratio
     private final Configuration bom;
     private final Project project;
     private final RecommendationProviderContainer container;
-
-    private final AtomicInteger copyCount = new AtomicInteger();
+    private final Configuration carrier;
 
     public ExtendRecommenderConfigurationAction(Configuration bom, Project project, RecommendationProviderContainer container) {
         this.bom = bom;
         this.project = project;
         this.container = container;
+        // created up front rather than while another configuration is being added, and shared by every configuration
+        this.carrier = project.getRootProject().equals(project) ? bom : createCopy(bom.getDependencies(), bom.getDependencyConstraints());
     }
 
     @Override
@@ -40,21 +40,16 @@ public class ExtendRecommenderConfigurationAction implements Action<Configuratio
         }
 
         if (configuration.getState() == Configuration.State.UNRESOLVED) {
-            Configuration toExtend = bom;
-            if (!project.getRootProject().equals(project)) {
-                toExtend = createCopy(bom.getDependencies(), bom.getDependencyConstraints());
-                project.getConfigurations().add(toExtend);
-            }
-            configuration.extendsFrom(toExtend);
+            configuration.extendsFrom(carrier);
         } else {
             logger.info("Configuration '" + configuration.getName() + "' has already been resolved and cannot be included for recommendation");
         }
     }
 
-    //
-
     /**
-     * This creates a copy with proper visibility and resolve configuration
+     * This creates a copy with proper visibility and resolve configuration, since a configuration can only extend
+     * configurations of its own project. Each project has a single copy, which every classpath configuration extends;
+     * when the BOMs of several ancestors are applied to a project they share it.
      *
      * From Gradle:
      * Instead of copying a configuration's roles outright, we allow copied configurations
@@ -67,9 +62,10 @@ public class ExtendRecommenderConfigurationAction implements Action<Configuratio
      * will be not only a different instance, but also may return different deprecation values.
      */
     private DefaultConfiguration createCopy(Set<Dependency> dependencies, Set<DependencyConstraint> dependencyConstraints) {
-        DefaultConfiguration copiedConfiguration = (DefaultConfiguration) project.getConfigurations().findByName(getNameWithCopySuffix());
+        String copyName = bom.getName() + "Copy";
+        DefaultConfiguration copiedConfiguration = (DefaultConfiguration) project.getConfigurations().findByName(copyName);
         if (copiedConfiguration == null) {
-            copiedConfiguration = (DefaultConfiguration) project.getConfigurations().create(getNameWithCopySuffix());
+            copiedConfiguration = (DefaultConfiguration) project.getConfigurations().create(copyName);
             copiedConfiguration.setVisible(false);
             copiedConfiguration.setCanBeResolved(false);
             copiedConfiguration.setCanBeConsumed(bom.isCanBeConsumed());
@@ -91,12 +87,6 @@ public class ExtendRecommenderConfigurationAction implements Action<Configuratio
         return copiedConfiguration;
     }
 
-    private String getNameWithCopySuffix() {
-        int count = this.copyCount.incrementAndGet();
-        String copyName = bom.getName() + "Copy";
-        return count == 1 ? copyName : copyName + count;
-    }
-
     //we want to apply recommendation only into final resolvable configurations like `compileClasspath` or `runtimeClasspath` across all source sets.
     private boolean isClasspathConfiguration(Configuration configuration) {
         return configuration.getName().endsWith("Classpath") || configuration.getName().toLowerCase().endsWith("annotationprocessor");
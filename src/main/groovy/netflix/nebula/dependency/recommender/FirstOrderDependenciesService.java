@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender;
+
+import netflix.nebula.dependency.recommender.provider.ModuleTable;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencySet;
+import org.gradle.api.artifacts.ExternalModuleDependency;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.internal.deprecation.DeprecationLogger;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Build-scoped index of the first order dependencies of the configurations targeted by project dependencies, shared
+ * by every configuration that resolves in the build.
+ * <p>
+ * The coordinates of the external dependencies that declare a version and the project dependency targets of a
+ * configuration are collected the first time it is reached and forgotten whenever its dependencies change. Only
+ * configurations that were {@link #observe(Configuration) observed} while their project was configured are remembered,
+ * the others are collected again each time.
+ */
+public abstract class FirstOrderDependenciesService implements BuildService<BuildServiceParameters.None> {
+    public static final String NAME = "nebulaRecommenderFirstOrderDependencies";
+
+    private final ConcurrentMap<Configuration, Node> nodes = new ConcurrentHashMap<>();
+    private final Set<Configuration> observed = ConcurrentHashMap.newKeySet();
+
+    public static Provider<FirstOrderDependenciesService> register(Project project) {
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, FirstOrderDependenciesService.class, spec -> {
+        });
+    }
+
+    /**
+     * Forgets what was collected for the configuration whenever its dependencies change. Must be called from the
+     * thread that configures the configuration's project, as listeners can't safely be added while other projects
+     * resolve.
+     */
+    public void observe(final Configuration configuration) {
+        if (observed.add(configuration)) {
+            DependencySet dependencies = configuration.getAllDependencies();
+            dependencies.whenObjectAdded(added -> nodes.remove(configuration));
+            dependencies.whenObjectRemoved(removed -> nodes.remove(configuration));
+        }
+    }
+
+    /**
+     * Passes the versioned coordinates of the external module dependencies of <code>configuration</code>, and of the
+     * configurations its project dependencies target, transitively, to the strategy. Each configuration is only
+     * visited once.
+     */
+    public void inspect(Configuration configuration, RecommendationStrategy strategy) {
+        Set<Configuration> visited = new HashSet<>();
+        List<Configuration> pending = new ArrayList<>();
+        pending.add(configuration);
+        while (!pending.isEmpty()) {
+            Configuration next = pending.remove(pending.size() - 1);
+            if (visited.add(next)) {
+                Node node = nodeOf(next);
+                if (!node.versioned.isEmpty()) {
+                    strategy.inspectVersionedDependencies(node.versioned);
+                }
+                pending.addAll(node.targets);
+            }
+        }
+    }
+
+    private Node nodeOf(final Configuration configuration) {
+        Node node = nodes.get(configuration);
+        if (node == null) {
+            ModuleTable<Boolean> versioned = new ModuleTable<>();
+            List<Configuration> targets = new ArrayList<>();
+            for (Dependency dependency : configuration.getAllDependencies()) {
+                if (dependency instanceof ExternalModuleDependency) {
+                    String version = dependency.getVersion();
+                    if (version != null && !version.isEmpty()) {
+                        versioned.put(dependency.getGroup(), dependency.getName(), Boolean.TRUE);
+                    }
+                } else if (dependency instanceof ProjectDependency) {
+                    targets.add(targetConfiguration((ProjectDependency) dependency));
+                }
+            }
+            node = new Node(versioned, targets);
+            if (observed.contains(configuration)) {
+                nodes.put(configuration, node);
+            }
+        }
+        return node;
+    }
+
+    private static Configuration targetConfiguration(final ProjectDependency projectDependency) {
+        final Configuration[] configuration = new Configuration[1];
+        try {
+            ProjectDependency.class.getMethod("getTargetConfiguration");
+            String targetConfiguration = projectDependency.getTargetConfiguration() == null ? Dependency.DEFAULT_CONFIGURATION : projectDependency.getTargetConfiguration();
+
+            DeprecationLogger.whileDisabled(() -> {
+                configuration[0] = projectDependency.getDependencyProject().getConfigurations().getByName(targetConfiguration);
+            });
+        } catch (NoSuchMethodException ignore) {
+            try {
+                Method method = ProjectDependency.class.getMethod("getProjectConfiguration");
+                configuration[0] = (Configuration) method.invoke(projectDependency);
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to retrieve configuration for project dependency", e);
+            }
+        }
+        return configuration[0];
+    }
+
+    private static final class Node {
+        final ModuleTable<Boolean> versioned;
+        final List<Configuration> targets;
+
+        Node(ModuleTable<Boolean> versioned, List<Configuration> targets) {
+            this.versioned = versioned;
+            this.targets = Collections.unmodifiableList(targets);
+        }
+    }
+}
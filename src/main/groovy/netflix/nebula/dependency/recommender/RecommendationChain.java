@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender;
+
+import netflix.nebula.dependency.recommender.provider.ModuleTable;
+import netflix.nebula.dependency.recommender.provider.RecommendationProviderContainer;
+import org.apache.commons.lang3.StringUtils;
+import org.gradle.api.Project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The recommendation containers of a project and its ancestors, nearest first, looked up once per project.
+ * <p>
+ * Once every container in the chain is frozen, coordinates that none of them recommend a version for are
+ * remembered, so misses do not walk the chain again until a provider is added.
+ */
+class RecommendationChain {
+    private final RecommendationProviderContainer[] containers;
+    private final ModuleTable<Boolean> misses = new ModuleTable<>(true);
+    private volatile int missesRevision = -1;
+    private volatile JoinedReasons joinedReasons;
+
+    private RecommendationChain(RecommendationProviderContainer[] containers) {
+        this.containers = containers;
+    }
+
+    /**
+     * Ancestors that do not apply the plugin are skipped.
+     */
+    static RecommendationChain of(Project project) {
+        List<RecommendationProviderContainer> containers = new ArrayList<>();
+        for (Project p = project; p != null; p = p.getParent()) {
+            RecommendationProviderContainer container = p.getExtensions().findByType(RecommendationProviderContainer.class);
+            if (container != null) {
+                containers.add(container);
+            }
+        }
+        return new RecommendationChain(containers.toArray(new RecommendationProviderContainer[0]));
+    }
+
+    /**
+     * Freezes every container in the chain, see {@link RecommendationProviderContainer#freeze()}.
+     */
+    void freeze() {
+        for (RecommendationProviderContainer container : containers) {
+            container.freeze();
+        }
+    }
+
+    String getRecommendedVersion(String group, String name) {
+        boolean cachingMisses = isCachingMisses();
+        if (cachingMisses && misses.containsKey(group, name)) {
+            return null;
+        }
+        for (RecommendationProviderContainer container : containers) {
+            String version = container.getRecommendedVersion(group, name);
+            if (version != null) {
+                return version;
+            }
+        }
+        if (cachingMisses) {
+            misses.put(group, name, Boolean.TRUE);
+        }
+        return null;
+    }
+
+    /**
+     * @return the reasons of the nearest container that has any
+     */
+    Set<String> getReasons() {
+        for (RecommendationProviderContainer container : containers) {
+            Set<String> reasons = container.getReasons();
+            if (!reasons.isEmpty()) {
+                return reasons;
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * @return {@link #getReasons()} joined with commas, only joined again when the reasons change
+     */
+    String getJoinedReasons() {
+        Set<String> reasons = getReasons();
+        JoinedReasons joined = joinedReasons;
+        // reasons are only ever added, for instance when a BOM is first read
+        if (joined == null || joined.reasons != reasons || joined.size != reasons.size()) {
+            joined = new JoinedReasons(reasons, StringUtils.join(reasons, ", "));
+            joinedReasons = joined;
+        }
+        return joined.text;
+    }
+
+    private boolean isCachingMisses() {
+        int revision = 0;
+        for (RecommendationProviderContainer container : containers) {
+            if (!container.isFrozen()) {
+                return false;
+            }
+            revision += container.getRevision();
+        }
+        if (revision != missesRevision) {
+            synchronized (this) {
+                if (revision != missesRevision) {
+                    misses.clear();
+                    missesRevision = revision;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class JoinedReasons {
+        final Set<String> reasons;
+        final int size;
+        final String text;
+
+        JoinedReasons(Set<String> reasons, String text) {
+            this.reasons = reasons;
+            this.size = reasons.size();
+            this.text = text;
+        }
+    }
+}
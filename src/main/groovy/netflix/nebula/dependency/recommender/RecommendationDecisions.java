@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender;
+
+import netflix.nebula.dependency.recommender.provider.ModuleTable;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.ResolutionStrategy;
+
+import java.util.function.Function;
+
+/**
+ * The decisions made for each module during a single resolution of a configuration, so a module that appears on
+ * many edges of the graph is only looked up once.
+ */
+class RecommendationDecisions {
+    private final ResolutionStrategy resolutionStrategy;
+    private final ModuleTable<Recommendation> recommendations = new ModuleTable<>(true);
+    private volatile ModuleTable<String> forcedModules;
+
+    RecommendationDecisions(ResolutionStrategy resolutionStrategy) {
+        this.resolutionStrategy = resolutionStrategy;
+    }
+
+    /**
+     * @return why no version is recommended for a forced module, or <code>null</code> if the module is not forced
+     */
+    String getForcedReason(ModuleVersionSelector target) {
+        ModuleTable<String> forced = forcedModules;
+        if (forced == null) {
+            // read on the first edge rather than up front, other beforeResolve hooks may still add forces
+            forced = new ModuleTable<>();
+            for (ModuleVersionSelector force : resolutionStrategy.getForcedModules()) {
+                forced.put(force.getGroup(), force.getName(),
+                        "Would have recommended a version for " + force.getGroup() + ":" + force.getName() + ", but a force is in place");
+            }
+            forcedModules = forced;
+        }
+        return forced.get(target.getGroup(), target.getName());
+    }
+
+    /**
+     * @param recommend looks up the recommendation for a module the first time it is seen
+     */
+    Recommendation getRecommendation(ModuleVersionSelector target, Function<ModuleVersionSelector, Recommendation> recommend) {
+        Recommendation recommendation = recommendations.get(target.getGroup(), target.getName());
+        if (recommendation == null) {
+            recommendation = recommend.apply(target);
+            recommendations.put(target.getGroup(), target.getName(), recommendation);
+        }
+        return recommendation;
+    }
+
+    static final class Recommendation {
+        static final Recommendation NONE = new Recommendation(null, null);
+
+        final String version;
+        final String because;
+
+        Recommendation(String version, String because) {
+            this.version = version;
+            this.because = because;
+        }
+    }
+}
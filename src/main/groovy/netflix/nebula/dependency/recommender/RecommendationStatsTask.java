@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender;
+
+import groovy.json.JsonOutput;
+import netflix.nebula.dependency.recommender.provider.RecommendationStatsService;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes what the recommender did for a project so far in the build, as JSON and as a plain text table. Runs after
+ * the project's other tasks, except those that depend on it, so their resolutions are included.
+ */
+public abstract class RecommendationStatsTask extends DefaultTask {
+    public static final String NAME = "recommendationStats";
+
+    public RecommendationStatsTask() {
+        setDescription("Reports recommendation lookups, BOM parsing and eachDependency callbacks for this project");
+        getOutputs().upToDateWhen(task -> false);
+    }
+
+    @Internal
+    public abstract Property<RecommendationStatsService> getStatsService();
+
+    @Input
+    public abstract Property<String> getProjectPath();
+
+    @OutputFile
+    public abstract RegularFileProperty getJsonReport();
+
+    @OutputFile
+    public abstract RegularFileProperty getTextReport();
+
+    @TaskAction
+    public void report() throws IOException {
+        RecommendationStatsService.ProjectStats stats = getStatsService().get().project(getProjectPath().get());
+        write(getJsonReport().get().getAsFile(), JsonOutput.prettyPrint(JsonOutput.toJson(stats.toMap())));
+        String table = stats.toTable();
+        write(getTextReport().get().getAsFile(), table);
+        getLogger().lifecycle(table);
+        if (stats.isEmpty()) {
+            getLogger().warn("Nothing was recorded for " + getProjectPath().get() + ": lookups are only counted once the "
+                    + "task graph is ready, so resolutions made while projects are configured, or reused from the "
+                    + "configuration cache, are not included");
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
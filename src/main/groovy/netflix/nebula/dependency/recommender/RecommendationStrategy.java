@@ -1,5 +1,6 @@
 package netflix.nebula.dependency.recommender;
 
+import netflix.nebula.dependency.recommender.provider.ModuleTable;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyResolveDetails;
 import org.gradle.api.artifacts.ModuleVersionSelector;
@@ -10,11 +11,21 @@ import org.gradle.api.artifacts.ModuleVersionSelector;
 public abstract class RecommendationStrategy {
     
     /**
-     * This hook is called for each dependency in a project. It collects the dependencies we are interested in for determining if a recommendation should be applied.
+     * This hook can be called for each dependency in a project. It collects the dependencies we are interested in for determining if a recommendation should be applied.
+     * The plugin passes the versioned dependencies to {@link #inspectVersionedDependencies(ModuleTable)} instead.
      * @param dependency the dependency to inspect.
      */
     public abstract void inspectDependency(Dependency dependency);
 
+    /**
+     * Called with the coordinates of the first order dependencies that declare a version, for the resolving
+     * configuration and each configuration its project dependencies target. The table is collected once per
+     * configuration and shared by every resolution that reaches it, so it must not be modified.
+     * @param versioned the coordinates, each mapped to {@link Boolean#TRUE}
+     */
+    public void inspectVersionedDependencies(ModuleTable<Boolean> versioned) {
+    }
+
     /**
      * Puts the recommended version on details.useVersion depending on the strategy used
      * @param details the details to recommend a version for
@@ -1,28 +1,31 @@
 package netflix.nebula.dependency.recommender;
 
+import netflix.nebula.dependency.recommender.provider.ModuleTable;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.artifacts.DependencyResolveDetails;
 import org.gradle.api.artifacts.ModuleVersionSelector;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class RecommendationsOverrideTransitivesStrategy extends RecommendationStrategy {
 
-    private List<String> firstOrderDepsWithVersions = new ArrayList<>();
+    private final ModuleTable<Boolean> firstOrderDepsWithVersions = new ModuleTable<>();
 
     @Override
     public void inspectDependency(Dependency dependency) {
         if (dependency.getVersion() != null && !dependency.getVersion().isEmpty()) {
-            firstOrderDepsWithVersions.add(dependency.getGroup() + ":" + dependency.getName());
+            firstOrderDepsWithVersions.put(dependency.getGroup(), dependency.getName(), Boolean.TRUE);
         }
     }
 
+    @Override
+    public void inspectVersionedDependencies(ModuleTable<Boolean> versioned) {
+        firstOrderDepsWithVersions.putAll(versioned);
+    }
+
     @Override
     public boolean canRecommendVersion(ModuleVersionSelector selector) {
         String version = selector.getVersion();
         boolean versionMissing = version == null || version.isEmpty();
-        return versionMissing || !firstOrderDepsWithVersions.contains(getCoord(selector));
+        return versionMissing || !firstOrderDepsWithVersions.containsKey(selector.getGroup(), selector.getName());
     }
 
     @Override
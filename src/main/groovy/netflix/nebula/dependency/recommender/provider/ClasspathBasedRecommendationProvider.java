@@ -18,9 +18,6 @@ package netflix.nebula.dependency.recommender.provider;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
 
-import java.io.File;
-import java.util.Set;
-
 public abstract class ClasspathBasedRecommendationProvider extends AbstractRecommendationProvider {
     protected Project project;
     protected Configuration configuration;
@@ -29,8 +26,4 @@ public abstract class ClasspathBasedRecommendationProvider extends AbstractRecom
         this.project = project;
         this.configuration = project.getConfigurations().getByName(configName);
     }
-
-    Set<File> getFilesOnConfiguration() {
-        return configuration.resolve();
-    }
 }
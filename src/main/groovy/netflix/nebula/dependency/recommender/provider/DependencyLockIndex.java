@@ -0,0 +1,370 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Locked versions read from a Nebula <code>dependencies.lock</code> or a Gradle <code>gradle.lockfile</code>.
+ * <p>
+ * Reading the lock only records where each module's entry starts. Its version is decoded the first time the module
+ * is looked up, and remembered whether or not one is locked.
+ * <p>
+ * Nebula locks map each module to an object with a <code>locked</code> version, either at the top level or, from
+ * version 4 on, in an object per configuration, later configurations winning. Gradle lockfiles have a
+ * <code>group:name:version=configurations</code> line per module.
+ */
+final class DependencyLockIndex {
+    static final DependencyLockIndex EMPTY = new DependencyLockIndex(ByteBuffer.allocate(0), false, Collections.<String, Integer>emptyMap());
+
+    private static final String NO_VERSION = new String("<none>");
+
+    private final ByteBuffer lock;
+    private final boolean json;
+    private final ModuleTable<Integer> offsets;
+    private final List<String> coordinates;
+    private final ModuleTable<String> versions = new ModuleTable<>(true);
+
+    private DependencyLockIndex(ByteBuffer lock, boolean json, Map<String, Integer> entries) {
+        this.lock = lock;
+        this.json = json;
+        this.offsets = ModuleTable.of(entries, ':');
+        this.coordinates = Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+    }
+
+    static DependencyLockIndex read(InputStream in) throws IOException {
+        ByteBuffer lock = SourceBuffers.read(in);
+        Scanner scanner = new Scanner(lock, 0);
+        scanner.skipWhitespace();
+        if (scanner.pos < lock.limit() && lock.get(scanner.pos) == '{') {
+            return new DependencyLockIndex(lock, true, scanner.indexJson());
+        }
+        return new DependencyLockIndex(lock, false, scanner.indexLockfile());
+    }
+
+    /**
+     * @param versions the locked version of each <code>group:name</code>
+     */
+    static DependencyLockIndex of(Map<String, String> versions) {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        for (String coordinate : versions.keySet()) {
+            entries.put(coordinate, 0);
+        }
+        DependencyLockIndex index = new DependencyLockIndex(ByteBuffer.allocate(0), true, entries);
+        for (Map.Entry<String, String> version : versions.entrySet()) {
+            index.versions.put(version.getKey(), ':', version.getValue() == null ? NO_VERSION : version.getValue());
+        }
+        return index;
+    }
+
+    Collection<String> getCoordinates() {
+        return coordinates;
+    }
+
+    String getVersion(String group, String name) {
+        String version = versions.get(group, name);
+        if (version == null) {
+            Integer offset = offsets.get(group, name);
+            if (offset == null) {
+                return null;
+            }
+            Scanner scanner = new Scanner(lock, offset);
+            version = json ? scanner.readLocked() : scanner.readLockfileVersion();
+            versions.put(group, name, version == null ? NO_VERSION : version);
+        }
+        //noinspection StringEquality
+        return version == NO_VERSION ? null : version;
+    }
+
+    /**
+     * @return every locked version, decoding the ones not looked up yet
+     */
+    Map<String, String> toMap() {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String coordinate : coordinates) {
+            int separator = coordinate.indexOf(':');
+            map.put(coordinate, separator < 0 ? null : getVersion(coordinate.substring(0, separator), coordinate.substring(separator + 1)));
+        }
+        return map;
+    }
+
+    /**
+     * Walks the lock with absolute reads, so scanners over the same buffer can run concurrently.
+     */
+    private static final class Scanner {
+        private final ByteBuffer lock;
+        private final int end;
+        private int pos;
+
+        Scanner(ByteBuffer lock, int pos) {
+            this.lock = lock;
+            this.end = lock.limit();
+            this.pos = pos;
+        }
+
+        /**
+         * @return the offset of each module's object, for the format the lock turns out to be in
+         */
+        Map<String, Integer> indexJson() {
+            Map<String, Integer> modules = new LinkedHashMap<>();
+            Map<String, Integer> byConfiguration = new LinkedHashMap<>();
+            boolean perConfiguration = true;
+
+            expect('{');
+            if (!endOf('}')) {
+                do {
+                    String key = readString();
+                    expect(':');
+                    skipWhitespace();
+                    modules.put(key, pos);
+                    if (peek() != '{') {
+                        perConfiguration = false;
+                        skipValue();
+                        continue;
+                    }
+                    pos++;
+                    if (endOf('}')) {
+                        continue;
+                    }
+                    do {
+                        String module = readString();
+                        expect(':');
+                        skipWhitespace();
+                        if (peek() != '{') {
+                            perConfiguration = false;
+                        } else if (perConfiguration) {
+                            byConfiguration.put(module, pos);
+                        }
+                        skipValue();
+                    } while (nextMember('}'));
+                } while (nextMember('}'));
+            }
+            return perConfiguration ? byConfiguration : modules;
+        }
+
+        Map<String, Integer> indexLockfile() {
+            Map<String, Integer> modules = new LinkedHashMap<>();
+            while (pos < end) {
+                int start = pos;
+                int firstColon = -1;
+                int secondColon = -1;
+                while (pos < end && !isLineEnd(lock.get(pos))) {
+                    if (lock.get(pos) == ':') {
+                        if (firstColon < 0) {
+                            firstColon = pos;
+                        } else if (secondColon < 0) {
+                            secondColon = pos;
+                        }
+                    }
+                    pos++;
+                }
+                if (secondColon > 0 && lock.get(start) != '#') {
+                    modules.put(decode(start, secondColon).trim(), secondColon + 1);
+                }
+                pos++;
+            }
+            return modules;
+        }
+
+        /**
+         * @return the <code>locked</code> string of the module object at the current position, if there is one
+         */
+        String readLocked() {
+            skipWhitespace();
+            if (peek() != '{') {
+                return null;
+            }
+            pos++;
+            if (endOf('}')) {
+                return null;
+            }
+            do {
+                String key = readString();
+                expect(':');
+                skipWhitespace();
+                if (key.equals("locked") && peek() == '"') {
+                    return readString();
+                }
+                skipValue();
+            } while (nextMember('}'));
+            return null;
+        }
+
+        String readLockfileVersion() {
+            int start = pos;
+            while (pos < end && lock.get(pos) != '=' && !isLineEnd(lock.get(pos))) {
+                pos++;
+            }
+            String version = decode(start, pos).trim();
+            return version.isEmpty() ? null : version;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = null;
+            int run = pos;
+            while (true) {
+                if (pos >= end) {
+                    throw malformed();
+                }
+                byte b = lock.get(pos);
+                if (b == '"') {
+                    String last = decode(run, pos++);
+                    return value == null ? last : value.append(last).toString();
+                }
+                if (b != '\\') {
+                    pos++;
+                    continue;
+                }
+                if (value == null) {
+                    value = new StringBuilder();
+                }
+                value.append(decode(run, pos));
+                if (pos + 1 >= end) {
+                    throw malformed();
+                }
+                byte escaped = lock.get(pos + 1);
+                pos += 2;
+                switch (escaped) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > end) {
+                            throw malformed();
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(decode(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw malformed();
+                        }
+                        pos += 4;
+                        break;
+                    default: value.append((char) escaped);
+                }
+                run = pos;
+            }
+        }
+
+        private void skipValue() {
+            skipWhitespace();
+            byte b = peek();
+            if (b == '"') {
+                readString();
+            } else if (b == '{' || b == '[') {
+                int depth = 0;
+                do {
+                    b = peek();
+                    if (b == '"') {
+                        readString();
+                        continue;
+                    }
+                    if (b == '{' || b == '[') {
+                        depth++;
+                    } else if (b == '}' || b == ']') {
+                        depth--;
+                    }
+                    pos++;
+                } while (depth > 0);
+            } else {
+                while (pos < end && (b = lock.get(pos)) != ',' && b != '}' && b != ']' && !isWhitespace(b)) {
+                    pos++;
+                }
+            }
+        }
+
+        /**
+         * @return <code>true</code> when a comma introduces another member, <code>false</code> at the closing bracket
+         */
+        private boolean nextMember(char close) {
+            skipWhitespace();
+            byte b = peek();
+            pos++;
+            if (b == ',') {
+                skipWhitespace();
+                return true;
+            }
+            if (b != close) {
+                throw malformed();
+            }
+            return false;
+        }
+
+        /**
+         * @return <code>true</code> after skipping the closing bracket of an empty object or array
+         */
+        private boolean endOf(char close) {
+            skipWhitespace();
+            if (peek() == close) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            if (peek() != c) {
+                throw malformed();
+            }
+            pos++;
+        }
+
+        private byte peek() {
+            if (pos >= end) {
+                throw malformed();
+            }
+            return lock.get(pos);
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && isWhitespace(lock.get(pos))) {
+                pos++;
+            }
+        }
+
+        private String decode(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = lock.get(from + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private IllegalArgumentException malformed() {
+            return new IllegalArgumentException("Malformed dependency lock at offset " + pos);
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private static boolean isLineEnd(byte b) {
+            return b == '\n' || b == '\r';
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package netflix.nebula.dependency.recommender.provider
 
-import groovy.json.JsonSlurper
 import org.gradle.api.Project
 
-class DependencyLockProvider extends FileBasedRecommendationProvider {
-    Map<String, String> recommendations
+/**
+ * Recommends the versions locked in a Nebula <code>dependencies.lock</code> or a Gradle <code>gradle.lockfile</code>.
+ */
+class DependencyLockProvider extends FileBasedRecommendationProvider implements EnumerableRecommendationProvider {
+    private volatile DependencyLockIndex index
 
     DependencyLockProvider() {}
 
@@ -14,20 +16,54 @@ class DependencyLockProvider extends FileBasedRecommendationProvider {
 
     @Override
     String getVersion(String org, String name) throws Exception {
-        if (!recommendations) {
-            input.withCloseable {
-                final Map<String, Map<String, String>> locks = (Map<String, Map<String, String>>) new JsonSlurper().parse(it)
-                final boolean isDependencyLock4Format = locks.every {
-                    it.value.every {
-                        it.value instanceof Map
+        load().getVersion(org, name)
+    }
+
+    @Override
+    Collection<String> getCoordinates() throws Exception {
+        load().coordinates
+    }
+
+    @Override
+    boolean hasFallback() {
+        false
+    }
+
+    Map<String, String> getRecommendations() {
+        load().toMap()
+    }
+
+    /**
+     * Recommends the given versions instead of those in the lock, or the lock's again when <code>null</code> or empty.
+     *
+     * @deprecated the locked versions are read from the lock, use a {@link MapRecommendationProvider} to recommend
+     * versions of your own
+     */
+    @Deprecated
+    void setRecommendations(Map<String, String> recommendations) {
+        index = recommendations ? DependencyLockIndex.of(recommendations) : null
+    }
+
+    private DependencyLockIndex load() {
+        awaitPrefetch()
+        loadSource()
+        index
+    }
+
+    @Override
+    protected void loadSource() {
+        if (index == null) {
+            synchronized (this) {
+                if (index == null) {
+                    // a lock that fails to load is only reported once, and recommends nothing from then on
+                    DependencyLockIndex loaded = DependencyLockIndex.EMPTY
+                    try {
+                        loaded = parseSource({ InputStream it -> DependencyLockIndex.read(it) } as SourceParser<DependencyLockIndex>)
+                    } finally {
+                        index = loaded
                     }
                 }
-
-                recommendations = (isDependencyLock4Format ? locks.collectEntries { it.value } : locks).collectEntries {
-                    [(it.key): it.value["locked"]]
-                } as Map<String, String>
             }
         }
-        recommendations[org + ':' + name]
     }
 }
@@ -0,0 +1,20 @@
+package netflix.nebula.dependency.recommender.provider;
+
+import java.util.Collection;
+
+/**
+ * A provider that can list the coordinates it has exact recommendations for, which lets
+ * {@link RecommendationProviderContainer#getRecommendedVersions()} capture them.
+ */
+public interface EnumerableRecommendationProvider extends RecommendationProvider {
+    /**
+     * @return every <code>group:name</code> coordinate this provider has an exact recommendation for
+     */
+    Collection<String> getCoordinates() throws Exception;
+
+    /**
+     * @return <code>true</code> if this provider may also recommend versions for coordinates that are not listed by
+     * {@link #getCoordinates()}, e.g. through globs
+     */
+    boolean hasFallback() throws Exception;
+}
@@ -8,6 +8,7 @@ import org.gradle.api.artifacts.ResolvedArtifact;
 import org.gradle.api.internal.artifacts.dependencies.DefaultExternalModuleDependency;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
 import org.gradle.internal.typeconversion.NotationConvertResult;
 
 import java.io.File;
@@ -15,6 +16,11 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 public abstract class FileBasedRecommendationProvider extends AbstractRecommendationProvider {
     protected Project project;
@@ -27,6 +33,11 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
         }
     };
 
+    private Object moduleNotation;
+    private Provider<RemoteSourcesService> moduleSources;
+    private volatile RemoteSourcesService.ResolvedModule resolvedModule;
+    private final AtomicReference<FutureTask<Void>> prefetch = new AtomicReference<>();
+
     protected FileBasedRecommendationProvider() { /* for mocks */ }
 
     public FileBasedRecommendationProvider(Project project) {
@@ -42,6 +53,7 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
     }
 
     public InputStreamProvider setFile(final File f) {
+        moduleNotation = null;
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() throws Exception {
@@ -52,6 +64,7 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
     }
 
     public InputStreamProvider setInputStream(final InputStream in) {
+        moduleNotation = null;
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() {
@@ -62,10 +75,12 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
     }
 
     public InputStreamProvider setUri(final URI uri) {
+        moduleNotation = null;
+        final Provider<RemoteSourcesService> remoteSources = remoteSources();
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() throws Exception {
-                return uri.toURL().openStream();
+                return openUrl(remoteSources, uri.toURL());
             }
         };
         return inputProvider;
@@ -76,29 +91,50 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
     }
 
     public InputStreamProvider setUrl(final URL url) {
+        moduleNotation = null;
+        final Provider<RemoteSourcesService> remoteSources = remoteSources();
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() throws Exception {
-                return url.openStream();
+                return openUrl(remoteSources, url);
             }
         };
         return inputProvider;
     }
 
     public InputStreamProvider setUrl(final String url) {
+        moduleNotation = null;
+        final Provider<RemoteSourcesService> remoteSources = remoteSources();
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() throws Exception {
-                return new URL(url).openStream();
+                return openUrl(remoteSources, new URL(url));
             }
         };
         return inputProvider;
     }
 
     public InputStreamProvider setModule(final Object dependencyNotation) {
+        moduleNotation = dependencyNotation;
+        moduleSources = remoteSources();
+        resolvedModule = null;
         inputProvider = new InputStreamProvider() {
             @Override
             public InputStream getInputStream() throws Exception {
+                return new FileInputStream(resolveModule().getFile());
+            }
+        };
+        return inputProvider;
+    }
+
+    /**
+     * Resolves the module source, or reuses the artifact another project resolved for the same notation in this build.
+     */
+    private RemoteSourcesService.ResolvedModule resolveModule() throws Exception {
+        RemoteSourcesService.ResolvedModule resolved = resolvedModule;
+        if (resolved == null) {
+            final Object dependencyNotation = moduleNotation;
+            Callable<RemoteSourcesService.ResolvedModule> resolve = () -> {
                 // create a temporary configuration to resolve the file
                 Configuration conf = project.getConfigurations().detachedConfiguration(
                         project.getDependencies().create(dependencyNotation));
@@ -106,10 +142,109 @@ public abstract class FileBasedRecommendationProvider extends AbstractRecommenda
                 ResolvedArtifact artifactId = conf.getResolvedConfiguration().getResolvedArtifacts().iterator().next();
                 logger.info("Selected recommendation source " + artifactId.getId() + ", you requested " + dependencyNotation);
 
-                return new FileInputStream(artifactId.getFile());
+                return new RemoteSourcesService.ResolvedModule(artifactId.getId().toString(), artifactId.getFile());
+            };
+            resolved = moduleSources == null ? resolve.call() : moduleSources.get().resolveModule(dependencyNotation.toString(), resolve);
+            resolvedModule = resolved;
+        }
+        return resolved;
+    }
+
+    private Provider<RemoteSourcesService> remoteSources() {
+        return project == null ? null : RemoteSourcesService.register(project);
+    }
+
+    /**
+     * Sources given by URL go through the build's {@link RemoteSourcesService}, so those served over HTTP are cached.
+     */
+    private static InputStream openUrl(Provider<RemoteSourcesService> remoteSources, URL url) throws Exception {
+        return remoteSources == null ? url.openStream() : remoteSources.get().open(url);
+    }
+
+    /**
+     * Parses the source. A module source is only parsed once per build by each type of provider, and the result is
+     * shared by every provider of that type reading the same artifact, so it must not be modified.
+     */
+    protected <T> T parseSource(final SourceParser<T> parser) throws Exception {
+        if (moduleNotation == null || moduleSources == null) {
+            try (InputStream in = getInput()) {
+                return parser.parse(in);
+            }
+        }
+        final RemoteSourcesService.ResolvedModule module;
+        try {
+            module = resolveModule();
+        } catch (Exception e) {
+            throw new InvalidUserDataException("Unable to open recommender input source", e);
+        }
+        return moduleSources.get().parse(getClass().getName(), module.getId(), () -> {
+            try (InputStream in = new FileInputStream(module.getFile())) {
+                return parser.parse(in);
+            }
+        });
+    }
+
+    protected interface SourceParser<T> {
+        T parse(InputStream in) throws Exception;
+    }
+
+    /**
+     * Reads and parses the source, unless it has been already. Providers that load their source lazily override it
+     * so that it can be prefetched, see {@link #prefetch(Executor)}.
+     */
+    protected void loadSource() throws Exception {
+    }
+
+    /**
+     * Starts loading the source on the given executor, so that it overlaps the rest of the build's configuration
+     * instead of happening on the thread of the first lookup.
+     * <p>
+     * Configurations may only be resolved from the project's own thread, so a module is resolved right away, and
+     * only read and parsed in the background.
+     */
+    void prefetch(Executor executor) {
+        Callable<Void> load = new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                loadSource();
+                return null;
             }
         };
-        return inputProvider;
+        if (moduleNotation != null) {
+            try {
+                resolveModule();
+            } catch (final Exception e) {
+                load = new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        throw new InvalidUserDataException("Unable to open recommender input source", e);
+                    }
+                };
+            }
+        }
+        FutureTask<Void> task = new FutureTask<>(load);
+        if (prefetch.compareAndSet(null, task)) {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Waits for a prefetched load to finish, or runs it on this thread when it has not started yet. A failure to
+     * load is only reported to the first lookup waiting for it, as when the source is loaded by the lookup itself.
+     */
+    protected void awaitPrefetch() throws Exception {
+        if (prefetch.get() == null) {
+            return;
+        }
+        FutureTask<Void> task = prefetch.getAndSet(null);
+        if (task != null) {
+            task.run();
+            try {
+                task.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
     }
 
     private class ProviderNotationConvertResult implements NotationConvertResult<DefaultExternalModuleDependency> {
@@ -1,95 +1,237 @@
 package netflix.nebula.dependency.recommender.provider;
 
+import org.gradle.api.InvalidUserDataException;
+
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Pattern;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves versions from properties that are either <code>group:name</code> coordinates, globs such as
+ * <code>group:*</code>, or any other name. A value starting with <code>$</code> is an alias for the version of the
+ * property it names, or of the glob matching that name.
+ * <p>
+ * The properties are read once, on the first lookup or on {@link #resolveAliases()}, and every alias is resolved then,
+ * so lookups never follow an alias. Properties whose aliases form a cycle or name nothing are reported then, and
+ * recommend nothing.
+ * <p>
+ * Modules that are not recommended by an exact coordinate are matched against the globs once, and the version, or
+ * the lack of one, is remembered so that looking the module up again is a single probe of a concurrent table.
+ */
 public abstract class FuzzyVersionResolver {
-    private volatile List<Glob> globs;
+    /**
+     * The most glob matches and misses remembered by a resolver. They are remembered in two halves: when the recent
+     * half is full the older one is forgotten, and modules looked up again since are kept.
+     */
+    static final int MEMO_SIZE = 10000;
+
+    // remembered for modules that no property matches, compared by identity
+    private static final String NO_VERSION = new String("");
+
+    private volatile Table table;
+    private volatile RecommendationStatsService.ProviderStats stats;
 
     abstract protected Collection<String> propertyNames();
     abstract protected String propertyValue(String name);
 
-    private String resolveVersion(String value) {
-        if(value == null) return null;
-        if(!value.startsWith("$")) return value;
-        return resolveVersion(versionOf(value.substring(1)));
+    public String versionOf(String key) {
+        int separator = key.indexOf(':');
+        if(separator >= 0) return versionOf(key.substring(0, separator), key.substring(separator + 1));
+        // not a module, so it is looked up without the memo
+        Table current = table();
+        String version = current.versions.get(key);
+        if(version != null) return version;
+        return current.globs.versionOf(key);
     }
 
-    public String versionOf(String key) {
-        String version = propertyValue(key);
-        if(version != null) return resolveVersion(version);
+    /**
+     * Equivalent to <code>versionOf(group + ":" + name)</code>, but exact matches are found without building
+     * the key.
+     */
+    public String versionOf(String group, String name) {
+        Table current = table();
+        RecommendationStatsService.ProviderStats counters = stats;
+        String version = current.modules.get(group, name);
+        if(version != null) {
+            if(counters != null) counters.recordMatch(false);
+            return version;
+        }
+        if(current.globs.isEmpty()) return null;
+        version = current.memoized(group, name);
+        if(counters != null) counters.recordMemo(version != null);
+        if(version == null) {
+            version = current.globs.versionOf(group + ':' + name);
+            if(version == null) version = NO_VERSION;
+            current.memoize(group, name, version);
+        }
+        if(version == NO_VERSION) return null;
+        if(counters != null) counters.recordMatch(true);
+        return version;
+    }
 
-        if(globs == null) {
+    /**
+     * Reads the properties and resolves their aliases now, rather than on the first lookup.
+     *
+     * @throws InvalidUserDataException if aliases form a cycle or name a property that doesn't exist; the error is
+     *                                  only reported once, and only the properties with those aliases recommend
+     *                                  nothing
+     */
+    void resolveAliases() {
+        table();
+    }
+
+    /**
+     * @param stats where to count exact and glob matches made by {@link #versionOf(String, String)}, and how often
+     *              globs did not have to be matched again
+     */
+    void setStats(RecommendationStatsService.ProviderStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * @return the version each glob recommends, with aliases resolved, in the order the globs are declared
+     */
+    Map<String, String> globVersions() {
+        return table().globVersions;
+    }
+
+    private Table table() {
+        if(table == null) {
             // thread safety for parallel builds
             synchronized (this) {
-                if(globs == null) {
-                    globs = createGlobCache();
+                if(table == null) {
+                    // a failure to read the properties is not remembered, so the next lookup reads them again
+                    Table built = new Table(propertyNames(), this);
+                    table = built;
+                    if(!built.problems.isEmpty()) {
+                        throw new InvalidUserDataException(String.join("\n", built.problems));
+                    }
                 }
             }
         }
+        return table;
+    }
 
-        for (Glob glob : globs) {
-            if (glob.matches(key)) {
-                return resolveVersion(glob.version);
+    private static final class Table {
+        private final Map<String, String> versions = new HashMap<>();
+        private final ModuleTable<String> modules = new ModuleTable<>();
+        private final GlobIndex globs = new GlobIndex();
+        private final Map<String, String> globVersions = new LinkedHashMap<>();
+        private volatile ModuleTable<String> recent = new ModuleTable<>(true);
+        private volatile ModuleTable<String> older = new ModuleTable<>(true);
+        private final AtomicInteger memoized = new AtomicInteger();
+        private final List<String> problems = new ArrayList<>();
+
+        // only needed while the table is built
+        private final Map<String, String> resolvedGlobs = new HashMap<>();
+        private final Set<String> broken = new HashSet<>();
+
+        Table(Collection<String> names, FuzzyVersionResolver properties) {
+            Map<String, String> values = new LinkedHashMap<>();
+            // globs are matched by their own name here, so an alias can be followed to the glob it resolves through
+            GlobIndex globNames = new GlobIndex();
+            for (String name : names) {
+                String value = properties.propertyValue(name);
+                if(value != null) {
+                    values.put(name, value);
+                    if(name.contains("*")) {
+                        globNames.add(name, name);
+                    }
+                }
+            }
+            globNames.seal();
+
+            for (String name : values.keySet()) {
+                String version = resolve(name, values, globNames);
+                if(version == null) continue;
+                if(name.contains("*")) {
+                    globs.add(name, version);
+                    globVersions.put(name, version);
+                } else {
+                    versions.put(name, version);
+                    modules.put(name, ':', version);
+                }
             }
+            globs.seal();
         }
 
-        return null;
-    }
-
-    private List<Glob> createGlobCache() {
-        List<Glob> cache = new ArrayList<>();
-        for (String name : propertyNames()) {
-            if(name.contains("*")) {
-                cache.add(Glob.compile(name, propertyValue(name)));
+        String memoized(String group, String name) {
+            String version = recent.get(group, name);
+            if(version == null) {
+                version = older.get(group, name);
+                if(version != null) memoize(group, name, version);
             }
+            return version;
         }
-        Collections.sort(cache);
-        return cache;
-    }
 
-    private static class Glob implements Comparable<Glob> {
-        private final Pattern pattern;
-        private final String version;
-        private final int weight;
-
-        private Glob(Pattern pattern, String version, int weight) {
-            this.pattern = pattern;
-            this.version = version;
-            this.weight = weight;
+        void memoize(String group, String name, String version) {
+            if(memoized.incrementAndGet() > MEMO_SIZE / 2) {
+                // dropping the older half is cheaper than tracking when each module was last looked up
+                synchronized (this) {
+                    if(memoized.get() > MEMO_SIZE / 2) {
+                        older = recent;
+                        recent = new ModuleTable<>(true);
+                        memoized.set(0);
+                    }
+                }
+            }
+            recent.put(group, name, version);
         }
 
-        private static Glob compile(String glob, String version) {
-            StringBuilder patternBuilder = new StringBuilder();
-            boolean first = true;
-            int weight = 0;
-
-            for (String token : glob.split("\\*", -1)) {
-                if (first) {
-                    first = false;
+        /**
+         * Follows the aliases from a property until a version, and remembers it for every property on the way.
+         *
+         * @return the version, or <code>null</code> when the aliases form a cycle or name nothing, which is added to
+         * the problems the first time
+         */
+        private String resolve(String name, Map<String, String> values, GlobIndex globNames) {
+            List<String> chain = new ArrayList<>();
+            String current = name;
+            String version = resolved(current);
+            while (version == null && !broken.contains(current)) {
+                int seen = chain.indexOf(current);
+                if(seen >= 0) {
+                    List<String> cycle = new ArrayList<>(chain.subList(seen, chain.size()));
+                    cycle.add(current);
+                    problems.add("Recommended versions refer to each other in a cycle: " + String.join(" -> ", cycle));
+                    break;
+                }
+                chain.add(current);
+                String value = values.get(current);
+                if(!value.startsWith("$")) {
+                    version = value;
+                    break;
+                }
+                String alias = value.substring(1);
+                String next = values.containsKey(alias) ? alias : globNames.versionOf(alias);
+                if(next == null) {
+                    problems.add("The recommended version of " + current + " refers to " + value
+                            + ", but nothing recommends a version for " + alias);
+                    break;
+                }
+                current = next;
+                version = resolved(current);
+            }
+            for (String link : chain) {
+                if(version == null) {
+                    broken.add(link);
+                } else if(link.contains("*")) {
+                    resolvedGlobs.put(link, version);
                 } else {
-                    patternBuilder.append(".*?");
+                    versions.put(link, version);
                 }
-
-                weight += token.length();
-                patternBuilder.append(Pattern.quote(token));
             }
-
-            Pattern pattern = Pattern.compile(patternBuilder.toString());
-
-            return new Glob(pattern, version, weight);
-        }
-
-        private boolean matches(String key) {
-            return pattern.matcher(key).matches();
+            return version;
         }
 
-        @Override
-        public int compareTo(Glob o) {
-            return Integer.compare(o.weight, weight);
+        private String resolved(String name) {
+            return name.contains("*") ? resolvedGlobs.get(name) : versions.get(name);
         }
     }
 }
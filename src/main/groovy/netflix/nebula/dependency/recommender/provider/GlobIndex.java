@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the glob with the heaviest literal weight matching a key in a single walk over the key.
+ * <p>
+ * Globs are stored in a trie keyed on their literal prefix (the text before the first <code>*</code>), so walking the
+ * key down the trie only visits globs whose prefix matches. The remaining literal segments are checked with plain
+ * <code>indexOf</code>/<code>endsWith</code> calls instead of a backtracking regular expression.
+ * <p>
+ * When several globs match, the one with the most literal characters wins; ties go to the glob that was added first.
+ */
+class GlobIndex {
+    private final Node root = new Node();
+    private int size = 0;
+
+    void add(String glob, String version) {
+        Glob compiled = new Glob(glob, version, size++);
+        Node node = root;
+        String prefix = compiled.segments[0];
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        node.globs.add(compiled);
+    }
+
+    /**
+     * Must be called once all globs have been added and before the index is queried.
+     */
+    GlobIndex seal() {
+        root.seal();
+        return this;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param key the coordinate to match
+     * @return the version of the winning glob, or <code>null</code> when no glob matches
+     */
+    String versionOf(String key) {
+        Glob best = root.best(key, null);
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children == null ? null : node.children.get(key.charAt(i));
+            if (node != null) {
+                best = node.best(key, best);
+            }
+        }
+        return best == null ? null : best.version;
+    }
+
+    private static class Node {
+        private Map<Character, Node> children;
+        private final List<Glob> globs = new ArrayList<>(1);
+
+        private Node child(char c) {
+            if (children == null) {
+                children = new HashMap<>();
+            }
+            Node child = children.get(c);
+            if (child == null) {
+                child = new Node();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        private void seal() {
+            Collections.sort(globs);
+            if (children != null) {
+                for (Node child : children.values()) {
+                    child.seal();
+                }
+            }
+        }
+
+        /**
+         * Globs are kept in rank order, so the scan stops at the first glob that matches or cannot beat the current best.
+         */
+        private Glob best(String key, Glob best) {
+            for (Glob glob : globs) {
+                if (best != null && best.compareTo(glob) <= 0) {
+                    break;
+                }
+                if (glob.matches(key)) {
+                    return glob;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static class Glob implements Comparable<Glob> {
+        private final String[] segments;
+        private final String version;
+        private final int weight;
+        private final int order;
+
+        private Glob(String glob, String version, int order) {
+            this.segments = glob.split("\\*", -1);
+            this.version = version;
+            this.order = order;
+            int weight = 0;
+            for (String segment : segments) {
+                weight += segment.length();
+            }
+            this.weight = weight;
+        }
+
+        /**
+         * The prefix has already been matched by the trie walk. The last segment is anchored to the end of the key and
+         * the segments in between are matched left to right, which is enough for globs that only contain <code>*</code>.
+         */
+        private boolean matches(String key) {
+            if (key.length() < weight) {
+                return false;
+            }
+            String first = segments[0];
+            String last = segments[segments.length - 1];
+            if (!key.endsWith(last)) {
+                return false;
+            }
+            int from = first.length();
+            int to = key.length() - last.length();
+            for (int i = 1; i < segments.length - 1; i++) {
+                String segment = segments[i];
+                int found = key.indexOf(segment, from);
+                if (found < 0 || found + segment.length() > to) {
+                    return false;
+                }
+                from = found + segment.length();
+            }
+            return from <= to;
+        }
+
+        @Override
+        public int compareTo(Glob o) {
+            int byWeight = Integer.compare(o.weight, weight);
+            return byWeight != 0 ? byWeight : Integer.compare(order, o.order);
+        }
+    }
+}
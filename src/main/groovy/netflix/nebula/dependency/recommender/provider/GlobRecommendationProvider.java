@@ -0,0 +1,13 @@
+package netflix.nebula.dependency.recommender.provider;
+
+import java.util.Map;
+
+/**
+ * A provider whose only recommendations for coordinates it doesn't list come from globs.
+ */
+interface GlobRecommendationProvider {
+    /**
+     * @return the version each glob recommends, in the order the globs are declared
+     */
+    Map<String, String> getGlobVersions() throws Exception;
+}
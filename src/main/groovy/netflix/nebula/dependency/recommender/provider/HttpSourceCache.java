@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import com.google.common.hash.Hashing;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps a copy of each recommendation source downloaded over HTTP, along with its <code>ETag</code> and
+ * <code>Last-Modified</code> headers, so that later builds only download it again when it has changed.
+ * <p>
+ * A copy younger than the freshness TTL is used as is. An older one is revalidated with a conditional GET, at most once
+ * per build. When the server can't be reached, or Gradle runs offline, the copy is used however old it is, unless the
+ * offline fallback is disabled.
+ */
+class HttpSourceCache {
+    private static final int FORMAT_VERSION = 1;
+
+    private final Logger logger = Logging.getLogger(HttpSourceCache.class);
+    private final File directory;
+    private final long ttlMillis;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final boolean offlineFallback;
+    private final boolean offline;
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+    private final Set<String> validated = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param directory where copies are kept, or <code>null</code> to always download sources
+     * @param offline   whether Gradle runs offline
+     */
+    HttpSourceCache(File directory, long ttlMillis, int connectTimeoutMillis, int readTimeoutMillis,
+                    boolean offlineFallback, boolean offline) {
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.offlineFallback = offlineFallback;
+        this.offline = offline;
+    }
+
+    InputStream open(URL url) throws IOException {
+        String protocol = url.getProtocol();
+        if (directory == null || !(protocol.equals("http") || protocol.equals("https"))) {
+            return connect(url).getInputStream();
+        }
+        String key = url.toExternalForm();
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            File entry = new File(directory, Hashing.sha256().hashString(key, StandardCharsets.UTF_8) + ".bin");
+            CachedSource cached = CachedSource.read(entry, key);
+            if (cached != null && (offline || validated.contains(key) || System.currentTimeMillis() - entry.lastModified() < ttlMillis)) {
+                return cached.open();
+            }
+            try {
+                InputStream body = download(url, entry, cached);
+                validated.add(key);
+                return body;
+            } catch (IOException e) {
+                if (cached == null || !offlineFallback) {
+                    throw e;
+                }
+                logger.warn("Unable to revalidate recommendation source " + url + ", using the copy from "
+                        + new Date(entry.lastModified()) + ": " + e.getMessage());
+                validated.add(key);
+                return cached.open();
+            }
+        }
+    }
+
+    private InputStream download(URL url, File entry, CachedSource cached) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) connect(url);
+        if (cached != null && cached.etag != null) {
+            connection.setRequestProperty("If-None-Match", cached.etag);
+        }
+        if (cached != null && cached.lastModified != null) {
+            connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+        }
+        try {
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                //noinspection ResultOfMethodCallIgnored
+                entry.setLastModified(System.currentTimeMillis());
+                return cached.open();
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Server returned HTTP response code " + status + " for " + url);
+            }
+            Files.createDirectories(directory.toPath());
+            File temp = File.createTempFile(entry.getName(), ".tmp", directory);
+            try {
+                try (InputStream in = connection.getInputStream();
+                     DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    CachedSource.writeHeader(out, url.toExternalForm(), connection.getHeaderField("ETag"),
+                            connection.getHeaderField("Last-Modified"));
+                    byte[] chunk = new byte[8192];
+                    int read;
+                    while ((read = in.read(chunk)) != -1) {
+                        out.write(chunk, 0, read);
+                    }
+                }
+                Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+        } finally {
+            connection.disconnect();
+        }
+        CachedSource downloaded = CachedSource.read(entry, url.toExternalForm());
+        if (downloaded == null) {
+            throw new IOException("Unable to read the downloaded copy of " + url);
+        }
+        return downloaded.open();
+    }
+
+    private URLConnection connect(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout(readTimeoutMillis);
+        return connection;
+    }
+
+    /**
+     * An entry is the source's URL and validators, followed by its content.
+     */
+    private static final class CachedSource {
+        private final File file;
+        private final String url;
+        private final String etag;
+        private final String lastModified;
+
+        private CachedSource(File file, String url, String etag, String lastModified) {
+            this.file = file;
+            this.url = url;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        static CachedSource read(File file, String url) {
+            if (!file.isFile()) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                return readHeader(in, file, url);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        private static CachedSource readHeader(DataInputStream in, File file, String url) throws IOException {
+            if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(url)) {
+                return null;
+            }
+            String etag = in.readBoolean() ? in.readUTF() : null;
+            String lastModified = in.readBoolean() ? in.readUTF() : null;
+            return new CachedSource(file, url, etag, lastModified);
+        }
+
+        static void writeHeader(DataOutputStream out, String url, String etag, String lastModified) throws IOException {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(url);
+            out.writeBoolean(etag != null);
+            if (etag != null) {
+                out.writeUTF(etag);
+            }
+            out.writeBoolean(lastModified != null);
+            if (lastModified != null) {
+                out.writeUTF(lastModified);
+            }
+        }
+
+        /**
+         * @return the content, as a buffered stream rather than a file stream so that it isn't mapped header and all
+         */
+        InputStream open() throws IOException {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if (readHeader(in, file, url) == null) {
+                    throw new IOException("The copy of the recommendation source in " + file + " has been replaced");
+                }
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+            return in;
+        }
+    }
+}
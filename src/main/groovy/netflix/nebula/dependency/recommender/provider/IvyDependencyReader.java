@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pulls the <code>org</code>, <code>name</code> and <code>rev</code> attributes of the <code>dependency</code>
+ * elements of an ivy.xml <code>dependencies</code> section out of a stream of parser events, without building a tree
+ * of the document.
+ */
+final class IvyDependencyReader {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private IvyDependencyReader() {
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+
+    /**
+     * @return the revision of each <code>org:name</code>, in document order, later duplicates winning
+     */
+    static Map<String, String> read(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        try {
+            Map<String, String> versions = new LinkedHashMap<>();
+            int depth = 0;
+            boolean inDependencies = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2) {
+                        inDependencies = "dependencies".equals(reader.getLocalName());
+                    } else if (depth == 3 && inDependencies && "dependency".equals(reader.getLocalName())) {
+                        versions.put(attribute(reader, "org") + ':' + attribute(reader, "name"), attribute(reader, "rev"));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return Collections.unmodifiableMap(versions);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @return the value of the attribute outside of any namespace, or an empty string when it is missing
+     */
+    private static String attribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if ((namespace == null || namespace.isEmpty()) && name.equals(reader.getAttributeLocalName(i))) {
+                return reader.getAttributeValue(i);
+            }
+        }
+        return "";
+    }
+}
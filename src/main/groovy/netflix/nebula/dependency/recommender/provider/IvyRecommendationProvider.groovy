@@ -1,26 +1,53 @@
 package netflix.nebula.dependency.recommender.provider
 
-import groovy.transform.CompileDynamic
 import org.gradle.api.Project
 
-class IvyRecommendationProvider extends FileBasedRecommendationProvider {
-    Map<String, String> versionsByCoord
+class IvyRecommendationProvider extends FileBasedRecommendationProvider implements EnumerableRecommendationProvider {
+    volatile Map<String, String> versionsByCoord
+    private volatile ModuleTable<String> modules
 
     IvyRecommendationProvider(Project p) { super(p) }
 
-    @CompileDynamic
     @Override
     String getVersion(String org, String name) throws Exception {
-        if (versionsByCoord == null) {
-            versionsByCoord = [:]
-            getInput().withCloseable {
-                def ivy = new XmlSlurper().parse(it)
-                ivy.dependencies.dependency.each { d ->
-                    versionsByCoord.put("${d.@org.text()}:${d.@name.text()}".toString(), "${d.@rev.text()}")
+        load()
+        return modules.get(org, name)
+    }
+
+    @Override
+    Collection<String> getCoordinates() throws Exception {
+        return load().keySet()
+    }
+
+    @Override
+    boolean hasFallback() {
+        return false
+    }
+
+    private Map<String, String> load() {
+        awaitPrefetch()
+        loadSource()
+        return versionsByCoord
+    }
+
+    @Override
+    protected void loadSource() {
+        if (modules == null) {
+            synchronized (this) {
+                if (modules == null) {
+                    // a source that fails to load is only reported once, and recommends nothing from then on
+                    Map<String, String> loaded = versionsByCoord ?: [:]
+                    try {
+                        if (versionsByCoord == null) {
+                            loaded = parseSource({ InputStream it -> IvyDependencyReader.read(it) } as SourceParser<Map<String, String>>)
+                        }
+                    } finally {
+                        versionsByCoord = loaded
+                        modules = ModuleTable.of(loaded, ':' as char)
+                    }
                 }
             }
         }
-        return versionsByCoord["$org:$name".toString()]
     }
 
     @SuppressWarnings("unchecked")
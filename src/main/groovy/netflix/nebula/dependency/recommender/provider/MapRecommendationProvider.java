@@ -2,32 +2,80 @@ package netflix.nebula.dependency.recommender.provider;
 
 import org.gradle.api.InvalidUserDataException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
-public class MapRecommendationProvider extends AbstractRecommendationProvider {
+public class MapRecommendationProvider extends AbstractRecommendationProvider implements EnumerableRecommendationProvider, MatchCountingRecommendationProvider, GlobRecommendationProvider {
     private Map<String, String> recommendations;
+    private RecommendationStatsService.ProviderStats stats;
 
-    private FuzzyVersionResolver fuzzyResolver = new FuzzyVersionResolver() {
-        @Override
-        protected Collection<String> propertyNames() {
-            return recommendations.keySet();
+    private FuzzyVersionResolver fuzzyResolver = newResolver();
+
+    private FuzzyVersionResolver newResolver() {
+        return new FuzzyVersionResolver() {
+            @Override
+            protected Collection<String> propertyNames() {
+                return recommendations.keySet();
+            }
+
+            @Override
+            protected String propertyValue(String name) {
+                return recommendations.get(name);
+            }
+        };
+    }
+
+    @Override
+    public String getVersion(String org, String name) {
+        checkRecommendations();
+        return fuzzyResolver.versionOf(org, name);
+    }
+
+    @Override
+    public Collection<String> getCoordinates() {
+        checkRecommendations();
+        List<String> coordinates = new ArrayList<>();
+        for (String key : recommendations.keySet()) {
+            if (key.contains(":") && !key.contains("*")) {
+                coordinates.add(key);
+            }
         }
+        return coordinates;
+    }
 
-        @Override
-        protected String propertyValue(String name) {
-            return recommendations.get(name);
+    @Override
+    public boolean hasFallback() {
+        checkRecommendations();
+        for (String key : recommendations.keySet()) {
+            if (key.contains("*")) {
+                return true;
+            }
         }
-    };
+        return false;
+    }
 
     @Override
-    public String getVersion(String org, String name) {
+    public void setStats(RecommendationStatsService.ProviderStats stats) {
+        this.stats = stats;
+        fuzzyResolver.setStats(stats);
+    }
+
+    @Override
+    public Map<String, String> getGlobVersions() {
+        checkRecommendations();
+        return fuzzyResolver.globVersions();
+    }
+
+    private void checkRecommendations() {
         if(recommendations == null)
             throw new InvalidUserDataException("No recommender of dependencies to versions was provided");
-        return fuzzyResolver.versionOf(org + ":" + name);
     }
 
     public void setRecommendations(Map<String, String> recommendations) {
         this.recommendations = recommendations;
+        this.fuzzyResolver = newResolver();
+        this.fuzzyResolver.setStats(stats);
     }
 }
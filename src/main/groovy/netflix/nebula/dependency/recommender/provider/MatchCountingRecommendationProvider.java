@@ -0,0 +1,8 @@
+package netflix.nebula.dependency.recommender.provider;
+
+/**
+ * A provider that can count how many of its recommendations were exact matches and how many came from globs.
+ */
+interface MatchCountingRecommendationProvider {
+    void setStats(RecommendationStatsService.ProviderStats stats);
+}
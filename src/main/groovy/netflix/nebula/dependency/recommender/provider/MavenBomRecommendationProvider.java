@@ -26,23 +26,45 @@ import org.apache.maven.model.path.DefaultUrlNormalizer;
 import org.apache.maven.model.resolution.InvalidRepositoryException;
 import org.apache.maven.model.resolution.ModelResolver;
 import org.apache.maven.model.resolution.UnresolvableModelException;
-import org.codehaus.plexus.interpolation.MapBasedValueSource;
+import org.codehaus.plexus.interpolation.AbstractValueSource;
 import org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
 import org.codehaus.plexus.interpolation.ValueSource;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class MavenBomRecommendationProvider extends ClasspathBasedRecommendationProvider implements EnumerableRecommendationProvider {
+    private static final RecommendationIndex[] NO_INDEXES = new RecommendationIndex[0];
 
-public class MavenBomRecommendationProvider extends ClasspathBasedRecommendationProvider {
     private volatile Map<String, String> recommendations = null;
+    private volatile ModuleTable<String> modules = null;
+    private volatile RecommendationIndex[] indexes = null;
+    private volatile boolean fullyIndexed = false;
     private Set<String> reasons = new HashSet<>();
 
+    private final Logger logger = Logging.getLogger(MavenBomRecommendationProvider.class);
+
     public MavenBomRecommendationProvider(Project project, String configName) {
         super(project, configName);
     }
@@ -82,7 +104,42 @@ public class MavenBomRecommendationProvider extends ClasspathBasedRecommendation
 
     @Override
     public String getVersion(String org, String name) throws Exception {
-        return getRecommendations().get(org + ":" + name);
+        RecommendationIndex[] indexed = getIndexes();
+        if (fullyIndexed) {
+            // later BOMs win, as when their recommendations are merged
+            for (int i = indexed.length - 1; i >= 0; i--) {
+                String version = indexed[i].getVersion(org, name);
+                if (version != null) {
+                    return version;
+                }
+            }
+            return null;
+        }
+        if (modules == null) {
+            modules = ModuleTable.of(getRecommendations(), ':');
+        }
+        return modules.get(org, name);
+    }
+
+    @Override
+    public Collection<String> getCoordinates() throws Exception {
+        RecommendationIndex[] indexed = getIndexes();
+        if (fullyIndexed) {
+            if (indexed.length == 1) {
+                return indexed[0].getCoordinates();
+            }
+            Set<String> coordinates = new LinkedHashSet<>();
+            for (RecommendationIndex index : indexed) {
+                coordinates.addAll(index.getCoordinates());
+            }
+            return coordinates;
+        }
+        return getRecommendations().keySet();
+    }
+
+    @Override
+    public boolean hasFallback() {
+        return false;
     }
 
     public Map<String, String> getRecommendations() {
@@ -97,84 +154,435 @@ public class MavenBomRecommendationProvider extends ClasspathBasedRecommendation
     }
 
     public Map<String, String> getMavenRecommendations() throws Exception {
-        Map<String, String> recommendations = new HashMap<>();
+        List<File> recommendationFiles = getBomFiles();
+        RecommendationIndex[] indexed = getIndexes();
+
+        List<File> unindexedFiles = new ArrayList<>();
+        for (int i = 0; i < recommendationFiles.size(); i++) {
+            if (indexed.length == 0 || indexed[i] == null) {
+                unindexedFiles.add(recommendationFiles.get(i));
+            }
+        }
+        MavenBomRecommendationsService.ParsedBom[] parsed = parseBoms(unindexedFiles);
 
-        Set<File> recommendationFiles = getFilesOnConfiguration();
-        for (File recommendation : recommendationFiles) {
-            if (!recommendation.getName().endsWith("pom")) {
+        List<Map<String, String>> boms = new ArrayList<>();
+        for (int i = 0, unindexed = 0; i < recommendationFiles.size(); i++) {
+            if (indexed.length > 0 && indexed[i] != null) {
+                boms.add(indexed[i].toMap());
+                continue;
+            }
+            MavenBomRecommendationsService.ParsedBom bom = parsed[unindexed++];
+            reasons.add("nebula.dependency-recommender uses mavenBom: " + bom.getId());
+
+            if (bom.getRecommendations() == null) {
                 break;
             }
+            boms.add(bom.getRecommendations());
+        }
+
+        // a single BOM can be handed out as is, it is immutable and shared with every other project using it
+        if (boms.size() == 1) {
+            return boms.get(0);
+        }
+        Map<String, String> recommendations = new HashMap<>();
+        for (Map<String, String> bom : boms) {
+            recommendations.putAll(bom);
+        }
+        return recommendations;
+    }
 
-            DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+    Configuration getBomConfiguration() {
+        return configuration;
+    }
 
-            request.setModelResolver(new ModelResolver() {
-                @Override
-                public ModelSource2 resolveModel(String groupId, String artifactId, String version) throws UnresolvableModelException {
-                    String notation = groupId + ":" + artifactId + ":" + version + "@pom";
-                    org.gradle.api.artifacts.Dependency dependency = project.getDependencies().create(notation);
-                    Configuration configuration = project.getConfigurations().detachedConfiguration(dependency);
+    private List<File> getBomFiles() {
+        List<File> recommendationFiles = new ArrayList<>();
+        for (ResolvedArtifactResult recommendation : getBomArtifacts()) {
+            recommendationFiles.add(recommendation.getFile());
+        }
+        return recommendationFiles;
+    }
+
+    private List<ResolvedArtifactResult> getBomArtifacts() {
+        List<ResolvedArtifactResult> recommendations = new ArrayList<>();
+        for (ResolvedArtifactResult recommendation : getBomConfiguration().getIncoming().getArtifacts()) {
+            if (!recommendation.getFile().getName().endsWith("pom")) {
+                break;
+            }
+            recommendations.add(recommendation);
+        }
+        return recommendations;
+    }
+
+    /**
+     * @return the index published with each BOM, <code>null</code> for BOMs without a usable one, or no indexes at all
+     * when they are disabled
+     */
+    private RecommendationIndex[] getIndexes() throws Exception {
+        if (indexes == null) {
+            synchronized (this) {
+                if (indexes == null) {
+                    RecommendationIndex[] found = NO_INDEXES;
                     try {
-                        File file = configuration.getFiles().iterator().next();
-                        return new SimpleModelSource(new FileInputStream(file));
-                    } catch (Exception e) {
-                        throw new UnresolvableModelException(e, groupId, artifactId, version);
+                        found = findIndexes();
+                    } finally {
+                        fullyIndexed = found.length > 0 && !Arrays.asList(found).contains(null);
+                        indexes = found;
                     }
                 }
+            }
+        }
+        return indexes;
+    }
 
-                @Override
-                public ModelSource2 resolveModel(Dependency dependency) throws UnresolvableModelException {
-                    return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+    private RecommendationIndex[] findIndexes() throws Exception {
+        MavenBomRecommendationsService service = MavenBomRecommendationsService.register(project).get();
+        if (!service.isIndexEnabled()) {
+            return NO_INDEXES;
+        }
+        List<ResolvedArtifactResult> boms = getBomArtifacts();
+        List<org.gradle.api.artifacts.Dependency> indexDependencies = new ArrayList<>();
+        for (ResolvedArtifactResult bom : boms) {
+            if (bom.getId().getComponentIdentifier() instanceof ModuleComponentIdentifier) {
+                ModuleComponentIdentifier module = (ModuleComponentIdentifier) bom.getId().getComponentIdentifier();
+                indexDependencies.add(project.getDependencies().create(module.getGroup() + ":" + module.getModule() + ":"
+                        + module.getVersion() + ":" + RecommendationIndex.CLASSIFIER + "@" + RecommendationIndex.EXTENSION));
+            }
+        }
+        Configuration detached = project.getConfigurations().detachedConfiguration(
+                indexDependencies.toArray(new org.gradle.api.artifacts.Dependency[0]));
+        detached.setTransitive(false);
+        // BOMs published without an index are simply missing from the lenient view
+        Map<String, File> indexFiles = new HashMap<>();
+        for (ResolvedArtifactResult index : detached.getIncoming().artifactView(view -> view.lenient(true)).getArtifacts()) {
+            indexFiles.put(index.getId().getComponentIdentifier().getDisplayName(), index.getFile());
+        }
+
+        RecommendationIndex[] found = new RecommendationIndex[boms.size()];
+        for (int i = 0; i < found.length; i++) {
+            File indexFile = indexFiles.get(boms.get(i).getId().getComponentIdentifier().getDisplayName());
+            if (indexFile == null) {
+                continue;
+            }
+            try {
+                RecommendationIndex index = service.openIndex(indexFile);
+                if (index.getPomHash().equals(MavenBomRecommendationsService.hash(boms.get(i).getFile()))) {
+                    found[i] = index;
+                    reasons.add("nebula.dependency-recommender uses mavenBom: " + index.getBomId());
+                } else {
+                    logger.info("Ignoring " + indexFile + ", it was not published with " + boms.get(i).getFile());
                 }
+            } catch (IOException e) {
+                logger.warn("Unable to read the recommendation index " + indexFile + ", using its BOM instead", e);
+            }
+        }
+        return found;
+    }
 
-                @Override
-                public ModelSource2 resolveModel(Parent parent) throws UnresolvableModelException {
-                    return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+    /**
+     * Looks each BOM up in the shared caches and builds the remaining ones, concurrently when there are several.
+     *
+     * @return the parsed BOMs in declaration order
+     */
+    private MavenBomRecommendationsService.ParsedBom[] parseBoms(List<File> recommendationFiles) throws Exception {
+        MavenBomRecommendationsService service = MavenBomRecommendationsService.register(project).get();
+        RecommendationStatsService statsService = RecommendationStatsService.register(project).get();
+        final RecommendationStatsService.ProjectStats stats = statsService.isEnabled() ? statsService.project(project.getPath()) : null;
+        MavenBomRecommendationsService.ParsedBom[] parsed = new MavenBomRecommendationsService.ParsedBom[recommendationFiles.size()];
+        String[] hashes = new String[recommendationFiles.size()];
+        List<Integer> misses = new ArrayList<>();
+        MavenPomResolver pomResolver = new MavenPomResolver(project, service);
+        for (int i = 0; i < recommendationFiles.size(); i++) {
+            long start = System.nanoTime();
+            hashes[i] = MavenBomRecommendationsService.hash(recommendationFiles.get(i));
+            parsed[i] = service.find(hashes[i], pomResolver.getRepositories(), project::findProperty, pomResolver::resolveAll);
+            if (parsed[i] == null) {
+                misses.add(i);
+            } else {
+                if (stats != null) {
+                    stats.recordBom(recommendationFiles.get(i).getName(), System.nanoTime() - start, true);
                 }
+            }
+        }
 
-                @Override
-                public void addRepository(Repository repository) throws InvalidRepositoryException {
-                    // do nothing
+        if (misses.isEmpty()) {
+            return parsed;
+        }
+
+        List<File> missingFiles = new ArrayList<>();
+        for (int i : misses) {
+            missingFiles.add(recommendationFiles.get(i));
+        }
+        Map<String, Object> properties = snapshotProperties(Collections.emptyMap(), expressionsIn(pomResolver.prefetch(missingFiles)));
+        Map<Integer, PropertySnapshot> snapshots = new HashMap<>();
+        for (int i : misses) {
+            snapshots.put(i, new PropertySnapshot(properties));
+        }
+
+        if (misses.size() == 1 || service.getMaxParallelism() <= 1) {
+            for (int i : misses) {
+                parsed[i] = buildBom(recommendationFiles.get(i), pomResolver::resolve, snapshots.get(i), stats);
+            }
+        } else {
+            PomResolutionQueue queue = new PomResolutionQueue(pomResolver);
+            Map<Integer, Future<MavenBomRecommendationsService.ParsedBom>> builds = new LinkedHashMap<>();
+            for (int i : misses) {
+                final File recommendation = recommendationFiles.get(i);
+                final PropertySnapshot snapshot = snapshots.get(i);
+                builds.put(i, service.submit(() -> buildBom(recommendation, queue, snapshot, stats)));
+            }
+            queue.resolveUntilDone(builds.values());
+            for (Map.Entry<Integer, Future<MavenBomRecommendationsService.ParsedBom>> build : builds.entrySet()) {
+                try {
+                    parsed[build.getKey()] = build.getValue().get();
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
                 }
+            }
+        }
 
-                @Override
-                public void addRepository(Repository repository, boolean bool) throws InvalidRepositoryException {
-                    // do nothing
+        for (int i : misses) {
+            // POMs that could not be prefetched may refer to properties outside the snapshot
+            PropertySnapshot snapshot = snapshots.get(i);
+            while (!snapshot.missing.isEmpty()) {
+                properties = snapshotProperties(properties, snapshot.missing);
+                if (!snapshot.isOutdatedBy(properties)) {
+                    break;
                 }
+                snapshot = new PropertySnapshot(properties);
+                parsed[i] = buildBom(recommendationFiles.get(i), pomResolver::resolve, snapshot, stats);
+            }
+            service.add(hashes[i], pomResolver.getRepositories(), parsed[i]);
+        }
+        return parsed;
+    }
 
-                @Override
-                public ModelResolver newCopy() {
-                    return this; // do nothing
+    private static Set<String> expressionsIn(Collection<File> poms) {
+        Set<String> expressions = new HashSet<>();
+        for (File pom : poms) {
+            try {
+                ModelInputs.scan(new String(Files.readAllBytes(pom.toPath()), StandardCharsets.UTF_8), expressions);
+            } catch (IOException e) {
+                // the POM is read again, and the failure reported, when the model is built
+            }
+        }
+        return expressions;
+    }
+
+    /**
+     * Project properties may only be read from the project's own thread, so the ones the POMs refer to are read
+     * before any model is built.
+     *
+     * @return an unmodifiable copy of the snapshot, with the given expressions added to it
+     */
+    private Map<String, Object> snapshotProperties(Map<String, Object> snapshot, Set<String> expressions) {
+        Map<String, Object> properties = new HashMap<>(snapshot);
+        for (String expression : expressions) {
+            properties.put(expression, project.findProperty(expression));
+        }
+        return Collections.unmodifiableMap(properties);
+    }
+
+    private MavenBomRecommendationsService.ParsedBom buildBom(File recommendation, PomResolver pomResolver, PropertySnapshot properties,
+                                                              RecommendationStatsService.ProjectStats stats) throws Exception {
+        long start = System.nanoTime();
+        MavenBomRecommendationsService.ParsedBom parsed = buildBom(recommendation, pomResolver, properties);
+        if (stats != null) {
+            stats.recordBom(recommendation.getName(), System.nanoTime() - start, false);
+        }
+        return parsed;
+    }
+
+    private static MavenBomRecommendationsService.ParsedBom buildBom(File recommendation, final PomResolver pomResolver,
+                                                                     PropertySnapshot properties) throws Exception {
+        final ModelInputs inputs = new ModelInputs();
+        DefaultModelBuildingRequest request = new DefaultModelBuildingRequest();
+
+        request.setModelResolver(new ModelResolver() {
+            @Override
+            public ModelSource2 resolveModel(String groupId, String artifactId, String version) throws UnresolvableModelException {
+                String notation = MavenPomResolver.notation(groupId, artifactId, version);
+                try {
+                    File file = pomResolver.resolve(notation);
+                    return inputs.read(file, notation);
+                } catch (Exception e) {
+                    throw new UnresolvableModelException(e, groupId, artifactId, version);
                 }
-            });
-            request.setModelSource(new SimpleModelSource(new FileInputStream(recommendation)));
-            request.setSystemProperties(System.getProperties());
+            }
 
-            DefaultModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
-            modelBuilder.setModelInterpolator(new ProjectPropertiesModelInterpolator(project));
+            @Override
+            public ModelSource2 resolveModel(Dependency dependency) throws UnresolvableModelException {
+                return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+            }
 
-            ModelBuildingResult result = modelBuilder.build(request);
-            reasons.add("nebula.dependency-recommender uses mavenBom: " + result.getEffectiveModel().getId());
+            @Override
+            public ModelSource2 resolveModel(Parent parent) throws UnresolvableModelException {
+                return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+            }
 
-            Model model = result.getEffectiveModel();
-            if (model == null) {
-                break;
+            @Override
+            public void addRepository(Repository repository) throws InvalidRepositoryException {
+                // do nothing
             }
-            org.apache.maven.model.DependencyManagement dependencyManagement = model.getDependencyManagement();
-            if (dependencyManagement == null) {
-                break;
+
+            @Override
+            public void addRepository(Repository repository, boolean bool) throws InvalidRepositoryException {
+                // do nothing
             }
+
+            @Override
+            public ModelResolver newCopy() {
+                return this; // do nothing
+            }
+        });
+        request.setModelSource(inputs.read(recommendation, null));
+        request.setSystemProperties(System.getProperties());
+
+        Map<String, String> projectProperties = new HashMap<>();
+        DefaultModelBuilder modelBuilder = new DefaultModelBuilderFactory().newInstance();
+        modelBuilder.setModelInterpolator(new ProjectPropertiesModelInterpolator(properties, projectProperties));
+
+        ModelBuildingResult result = modelBuilder.build(request);
+        Model model = result.getEffectiveModel();
+
+        Map<String, String> recommendations = null;
+        org.apache.maven.model.DependencyManagement dependencyManagement = model.getDependencyManagement();
+        if (dependencyManagement != null) {
+            recommendations = new HashMap<>();
             for (Dependency d : dependencyManagement.getDependencies()) {
                 recommendations.put(d.getGroupId() + ":" + d.getArtifactId(), d.getVersion());
             }
         }
-        return recommendations;
+        return new MavenBomRecommendationsService.ParsedBom(model.getId(), recommendations, projectProperties,
+                MavenBomRecommendationsService.systemPropertiesFor(inputs.expressions), inputs.poms);
+    }
+
+    private interface PomResolver {
+        File resolve(String notation) throws Exception;
+    }
+
+    /**
+     * Configurations may only be resolved from the project's own thread, so BOMs built on the shared pool hand their
+     * parent and import POM resolutions back to the thread waiting for them.
+     */
+    private static class PomResolutionQueue implements PomResolver {
+        private final BlockingQueue<FutureTask<File>> requests = new LinkedBlockingQueue<>();
+        private final MavenPomResolver pomResolver;
+
+        private PomResolutionQueue(MavenPomResolver pomResolver) {
+            this.pomResolver = pomResolver;
+        }
+
+        @Override
+        public File resolve(final String notation) throws Exception {
+            File resolved = pomResolver.findResolved(notation);
+            if (resolved != null) {
+                return resolved;
+            }
+            FutureTask<File> request = new FutureTask<>(() -> pomResolver.resolve(notation));
+            requests.put(request);
+            try {
+                return request.get();
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+
+        private void resolveUntilDone(Collection<? extends Future<?>> builds) throws InterruptedException {
+            while (!isDone(builds)) {
+                FutureTask<File> request = requests.poll(10, TimeUnit.MILLISECONDS);
+                if (request != null) {
+                    request.run();
+                }
+            }
+        }
+
+        private boolean isDone(Collection<? extends Future<?>> builds) {
+            for (Future<?> build : builds) {
+                if (!build.isDone()) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
+    /**
+     * The project properties a model is interpolated with. Expressions outside the snapshot are treated as unset and
+     * remembered, so the model can be built again once they have been read on the project's thread.
+     */
+    private static class PropertySnapshot {
+        private final Map<String, Object> properties;
+        private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+        private PropertySnapshot(Map<String, Object> properties) {
+            this.properties = properties;
+        }
+
+        private Object get(String expression) {
+            if (!properties.containsKey(expression)) {
+                missing.add(expression);
+            }
+            return properties.get(expression);
+        }
+
+        /**
+         * @return whether any expression missing from this snapshot has a value in the given one
+         */
+        private boolean isOutdatedBy(Map<String, Object> snapshot) {
+            for (String expression : missing) {
+                if (snapshot.get(expression) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Records what a model was built from: the checksum of every parent and imported POM, and every property the
+     * POMs could read through interpolation or profile activation.
+     */
+    private static class ModelInputs {
+        private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+        private static final Pattern ACTIVATION_PROPERTY = Pattern.compile("<property>\\s*<name>!?([^<]+)</name>");
+
+        private final Map<String, String> poms = new HashMap<>();
+        private final Set<String> expressions = new HashSet<>();
+
+        /**
+         * @param notation the notation the POM was resolved for, or <code>null</code> for the BOM itself
+         */
+        private SimpleModelSource read(File pom, String notation) throws IOException {
+            byte[] bytes = Files.readAllBytes(pom.toPath());
+            if (notation != null) {
+                poms.put(notation, MavenBomRecommendationsService.hash(bytes));
+            }
+            scan(new String(bytes, StandardCharsets.UTF_8), expressions);
+            return new SimpleModelSource(new ByteArrayInputStream(bytes));
+        }
+
+        private static void scan(String text, Set<String> expressions) {
+            for (Pattern pattern : Arrays.asList(EXPRESSION, ACTIVATION_PROPERTY)) {
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    expressions.add(matcher.group(1).trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * Interpolates with a snapshot of the Gradle project properties, remembering every project property that was read
+     * so the parsed BOM can be shared with projects that have the same values for them.
+     */
     private static class ProjectPropertiesModelInterpolator extends StringSearchModelInterpolator {
-        private final Project project;
+        private final PropertySnapshot properties;
+        private final Map<String, String> projectProperties;
 
-        ProjectPropertiesModelInterpolator(Project project) {
-            this.project = project;
+        ProjectPropertiesModelInterpolator(PropertySnapshot properties, Map<String, String> projectProperties) {
+            this.properties = properties;
+            this.projectProperties = projectProperties;
             setUrlNormalizer(new DefaultUrlNormalizer());
             setPathTranslator(new DefaultPathTranslator());
         }
@@ -183,7 +591,14 @@ public class MavenBomRecommendationProvider extends ClasspathBasedRecommendation
             List<ValueSource> sources = new ArrayList<>();
             sources.addAll(super.createValueSources(model, projectDir, request, collector));
             sources.add(new PropertiesBasedValueSource(System.getProperties()));
-            sources.add(new MapBasedValueSource(project.getProperties()));
+            sources.add(new AbstractValueSource(false) {
+                @Override
+                public Object getValue(String expression) {
+                    Object value = properties.get(expression);
+                    projectProperties.put(expression, value == null ? null : value.toString());
+                    return value;
+                }
+            });
             return sources;
         }
     }
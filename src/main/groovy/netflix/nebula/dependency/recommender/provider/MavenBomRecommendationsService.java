@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.FlatDirectoryArtifactRepository;
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Build-scoped cache of parsed BOMs, shared by every project in the build.
+ * <p>
+ * BOMs are keyed by the hash of their content and by the repositories the project resolves POMs from, see
+ * {@link #repositoriesKey(Project)}, as projects with other repositories may resolve different parent and imported
+ * POMs. Because the effective model may interpolate Gradle project properties, each parsed BOM also remembers the
+ * project properties it read; a project only reuses a parsed BOM when its own values for those properties are the same.
+ * Resolved parent and imported POMs are likewise only shared by projects with the same repositories.
+ * <p>
+ * Parsed BOMs are also kept in a persistent cache under the Gradle user home, see {@link PersistentBomCache}. It can
+ * be tuned with the <code>nebula.dependency-recommender.bomCache.enabled</code>,
+ * <code>nebula.dependency-recommender.bomCache.maxAgeDays</code> and
+ * <code>nebula.dependency-recommender.bomCache.maxSizeMb</code> system properties.
+ * <p>
+ * BOMs that miss both caches are built on a bounded pool shared by the whole build, sized by the
+ * <code>nebula.dependency-recommender.bomParallelism</code> system property. Prefetched recommendation sources are
+ * loaded on the same pool.
+ * <p>
+ * With the <code>nebula.dependency-recommender.bomIndex.enabled</code> system property set, BOMs published with a
+ * {@link RecommendationIndex} are read from the index instead of being built.
+ */
+public abstract class MavenBomRecommendationsService implements BuildService<MavenBomRecommendationsService.Params>, AutoCloseable {
+    public static final String NAME = "nebulaMavenBomRecommendations";
+    private static final String CACHE_PROPERTY_PREFIX = "nebula.dependency-recommender.bomCache.";
+
+    /**
+     * Properties whose values affect profile activation, they are part of every cache key.
+     */
+    private static final List<String> ACTIVATION_PROPERTIES = Arrays.asList("java.version", "os.name", "os.arch", "os.version");
+
+    private final ConcurrentMap<String, List<ParsedBom>> boms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, File> resolvedPoms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, RecommendationIndex> indexes = new ConcurrentHashMap<>();
+    private final PersistentBomCache persistentCache;
+    private volatile ExecutorService executor;
+
+    public interface Params extends BuildServiceParameters {
+        Property<File> getCacheDirectory();
+
+        Property<Boolean> getPersistentCacheEnabled();
+
+        Property<Integer> getMaxAgeDays();
+
+        Property<Long> getMaxSizeBytes();
+
+        Property<Integer> getMaxParallelism();
+
+        Property<Boolean> getIndexEnabled();
+    }
+
+    public MavenBomRecommendationsService() {
+        persistentCache = getParameters().getPersistentCacheEnabled().get() ?
+                new PersistentBomCache(getParameters().getCacheDirectory().get()) : null;
+    }
+
+    public static Provider<MavenBomRecommendationsService> register(Project project) {
+        final ProviderFactory providers = project.getProviders();
+        final File cacheDirectory = new File(project.getGradle().getGradleUserHomeDir(), "caches/nebula-dependency-recommender/boms");
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, MavenBomRecommendationsService.class, spec -> {
+            Params params = spec.getParameters();
+            params.getCacheDirectory().set(cacheDirectory);
+            params.getPersistentCacheEnabled().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "enabled").map(Boolean::valueOf).orElse(true));
+            params.getMaxAgeDays().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "maxAgeDays").map(Integer::valueOf).orElse(30));
+            params.getMaxSizeBytes().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "maxSizeMb").map(mb -> Long.parseLong(mb) * 1024 * 1024).orElse(100L * 1024 * 1024));
+            params.getMaxParallelism().set(providers.systemProperty("nebula.dependency-recommender.bomParallelism").map(Integer::valueOf)
+                    .orElse(Math.min(4, Runtime.getRuntime().availableProcessors())));
+            params.getIndexEnabled().set(providers.systemProperty("nebula.dependency-recommender.bomIndex.enabled").map(Boolean::valueOf).orElse(false));
+        });
+    }
+
+    /**
+     * @param hash         the hash of the BOM file, see {@link #hash(File)}
+     * @param repositories the repositories of the project, see {@link #repositoriesKey(Project)}
+     * @param properties   looks up a project property by name, as the model interpolator would
+     * @param resolvePoms  resolves parent and imported POMs by notation, leaving out those that can't be resolved, to
+     *                     check that a BOM from the persistent cache was built from the POMs this build resolves
+     * @return a parsed BOM from memory or the persistent cache that is compatible with the given project properties,
+     * or <code>null</code> when the BOM has to be built
+     */
+    public ParsedBom find(String hash, String repositories, Function<String, Object> properties,
+                          Function<Collection<String>, Map<String, File>> resolvePoms) {
+        List<ParsedBom> candidates = candidates(hash, repositories);
+        for (ParsedBom candidate : candidates) {
+            if (candidate.isCompatibleWith(properties)) {
+                return candidate;
+            }
+        }
+        ParsedBom parsed = persistentCache == null ? null : persistentCache.load(hash, properties, resolvePoms);
+        if (parsed != null) {
+            candidates.add(parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Makes a newly built BOM available to the other projects in this build and to later builds.
+     */
+    public void add(String hash, String repositories, ParsedBom parsed) {
+        candidates(hash, repositories).add(parsed);
+        if (persistentCache != null) {
+            persistentCache.store(hash, parsed);
+        }
+    }
+
+    private List<ParsedBom> candidates(String hash, String repositories) {
+        return boms.computeIfAbsent(hash + " " + repositories, k -> new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * @param repositories the repositories of the project, see {@link #repositoriesKey(Project)}
+     * @param notation     a <code>group:name:version@pom</code> notation
+     * @return the POM resolved for the notation from the same repositories earlier in this build, or <code>null</code>
+     */
+    public File getResolvedPom(String repositories, String notation) {
+        return resolvedPoms.get(repositories + " " + notation);
+    }
+
+    public void putResolvedPom(String repositories, String notation, File pom) {
+        resolvedPoms.put(repositories + " " + notation, pom);
+    }
+
+    /**
+     * Must be called from the project's thread.
+     *
+     * @return a key for the repositories the project resolves POMs from, by their name and location
+     */
+    public static String repositoriesKey(Project project) {
+        StringBuilder key = new StringBuilder();
+        for (ArtifactRepository repository : project.getRepositories()) {
+            key.append(repository.getName());
+            if (repository instanceof UrlArtifactRepository) {
+                key.append(' ').append(((UrlArtifactRepository) repository).getUrl());
+            } else if (repository instanceof FlatDirectoryArtifactRepository) {
+                key.append(' ').append(((FlatDirectoryArtifactRepository) repository).getDirs());
+            }
+            key.append('\n');
+        }
+        return hash(key.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isIndexEnabled() {
+        return getParameters().getIndexEnabled().get();
+    }
+
+    /**
+     * @return the index in the file, mapped once per build and shared by every project using it
+     */
+    public RecommendationIndex openIndex(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        RecommendationIndex index = indexes.get(path);
+        if (index == null) {
+            index = RecommendationIndex.open(file);
+            RecommendationIndex existing = indexes.putIfAbsent(path, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    public int getMaxParallelism() {
+        return getParameters().getMaxParallelism().get();
+    }
+
+    /**
+     * Runs a BOM build or a source load on the shared pool. They must not resolve Gradle configurations themselves,
+     * as they run outside of the project's context.
+     */
+    public <T> Future<T> submit(Callable<T> build) {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    final AtomicInteger threads = new AtomicInteger();
+                    executor = Executors.newFixedThreadPool(getMaxParallelism(), runnable -> {
+                        Thread thread = new Thread(runnable, "nebula-bom-builder-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return executor.submit(build);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        if (persistentCache != null) {
+            persistentCache.cleanup(getParameters().getMaxAgeDays().get(), getParameters().getMaxSizeBytes().get());
+        }
+    }
+
+    public static String hash(File file) throws IOException {
+        return Files.asByteSource(file).hash(Hashing.sha256()).toString();
+    }
+
+    static String hash(byte[] bytes) {
+        return Hashing.sha256().hashBytes(bytes).toString();
+    }
+
+    /**
+     * Captures the current value of the system properties and environment variables referenced by a BOM, along with
+     * the properties used for profile activation.
+     *
+     * @param expressions the <code>${...}</code> expressions found in the BOM and its parent and imported POMs
+     */
+    public static Map<String, String> systemPropertiesFor(Collection<String> expressions) {
+        Map<String, String> values = new HashMap<>();
+        for (String property : ACTIVATION_PROPERTIES) {
+            values.put(property, System.getProperty(property));
+        }
+        for (String expression : expressions) {
+            values.put(expression, currentValue(expression));
+        }
+        return values;
+    }
+
+    private static String currentValue(String expression) {
+        return expression.startsWith("env.") ? System.getenv(expression.substring(4)) : System.getProperty(expression);
+    }
+
+    /**
+     * The flattened dependencyManagement section of a BOM's effective model.
+     */
+    public static final class ParsedBom {
+        private final String id;
+        private final Map<String, String> recommendations;
+        private final Map<String, String> projectProperties;
+        private final Map<String, String> systemProperties;
+        private final Map<String, String> poms;
+
+        /**
+         * @param id                the id of the effective model
+         * @param recommendations   <code>groupId:artifactId</code> to version, or <code>null</code> when the effective
+         *                          model has no dependencyManagement section
+         * @param projectProperties the project properties read while interpolating the model, with <code>null</code>
+         *                          values for properties that were not set
+         * @param systemProperties  the system properties and environment variables the model could have read, see
+         *                          {@link #systemPropertiesFor(Collection)}
+         * @param poms              the checksum of each parent and imported POM, keyed by its
+         *                          <code>group:name:version@pom</code> notation
+         */
+        public ParsedBom(String id, Map<String, String> recommendations, Map<String, String> projectProperties,
+                         Map<String, String> systemProperties, Map<String, String> poms) {
+            this.id = id;
+            this.recommendations = recommendations == null ? null : Collections.unmodifiableMap(new HashMap<>(recommendations));
+            this.projectProperties = Collections.unmodifiableMap(new HashMap<>(projectProperties));
+            this.systemProperties = Collections.unmodifiableMap(new HashMap<>(systemProperties));
+            this.poms = Collections.unmodifiableMap(new HashMap<>(poms));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Map<String, String> getRecommendations() {
+            return recommendations;
+        }
+
+        public Map<String, String> getProjectProperties() {
+            return projectProperties;
+        }
+
+        public Map<String, String> getSystemProperties() {
+            return systemProperties;
+        }
+
+        public Map<String, String> getPoms() {
+            return poms;
+        }
+
+        boolean isCompatibleWith(Function<String, Object> properties) {
+            for (Map.Entry<String, String> property : projectProperties.entrySet()) {
+                Object value = properties.apply(property.getKey());
+                if (!Objects.equals(property.getValue(), value == null ? null : value.toString())) {
+                    return false;
+                }
+            }
+            for (Map.Entry<String, String> property : systemProperties.entrySet()) {
+                if (!Objects.equals(property.getValue(), currentValue(property.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param resolved the POMs resolved in this build for the notations of {@link #getPoms()}
+         */
+        boolean arePomsUnchanged(Map<String, File> resolved) throws IOException {
+            for (Map.Entry<String, String> pom : poms.entrySet()) {
+                File file = resolved.get(pom.getKey());
+                if (file == null || !file.isFile() || !pom.getValue().equals(hash(file))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.ResolvedArtifact;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the parent and import-scope POMs of BOMs, remembering every resolved POM for the rest of the build and the
+ * projects with the same repositories.
+ * <p>
+ * Before BOMs are built, the parents and imports they declare with literal (or locally defined) versions are resolved
+ * level by level, each level in a single detached configuration, so building the effective models rarely has to
+ * resolve a POM on its own.
+ */
+class MavenPomResolver {
+    private final Logger logger = Logging.getLogger(MavenPomResolver.class);
+
+    private final Project project;
+    private final MavenBomRecommendationsService service;
+    private final String repositories;
+
+    /**
+     * Must be called from the project's thread.
+     */
+    MavenPomResolver(Project project, MavenBomRecommendationsService service) {
+        this.project = project;
+        this.service = service;
+        this.repositories = MavenBomRecommendationsService.repositoriesKey(project);
+    }
+
+    /**
+     * @return the key of the repositories POMs are resolved from, see {@link MavenBomRecommendationsService#repositoriesKey(Project)}
+     */
+    String getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * @return the previously resolved POM for the notation, or <code>null</code>. Safe to call from any thread.
+     */
+    File findResolved(String notation) {
+        return service.getResolvedPom(repositories, notation);
+    }
+
+    /**
+     * Must be called from the project's thread.
+     */
+    File resolve(String notation) {
+        File pom = findResolved(notation);
+        if (pom == null) {
+            Configuration configuration = project.getConfigurations().detachedConfiguration(project.getDependencies().create(notation));
+            pom = configuration.getFiles().iterator().next();
+            service.putResolvedPom(repositories, notation, pom);
+        }
+        return pom;
+    }
+
+    /**
+     * Resolves the POMs that haven't been resolved yet in this build in a single detached configuration. Must be
+     * called from the project's thread.
+     *
+     * @return the POM of each notation, leaving out those that can't be resolved
+     */
+    Map<String, File> resolveAll(Collection<String> notations) {
+        Map<String, File> resolved = new HashMap<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (String notation : notations) {
+            File pom = findResolved(notation);
+            if (pom != null) {
+                resolved.put(notation, pom);
+            } else {
+                unresolved.add(notation);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            resolved.putAll(resolveLeniently(unresolved));
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves the POMs that the given BOMs, and in turn their parents and imports, are known to need. Failures are
+     * ignored here, the POM is resolved again and the failure reported when the model is built.
+     *
+     * @return the given BOMs and every POM reached from them
+     */
+    List<File> prefetch(Collection<File> boms) {
+        Set<String> seen = new HashSet<>();
+        List<File> reached = new ArrayList<>();
+        List<File> level = new ArrayList<>(boms);
+        while (!level.isEmpty()) {
+            reached.addAll(level);
+            List<File> next = new ArrayList<>();
+            Set<String> unresolved = new LinkedHashSet<>();
+            for (File pom : level) {
+                for (String notation : referencedPoms(pom)) {
+                    if (seen.add(notation)) {
+                        File resolved = findResolved(notation);
+                        if (resolved != null) {
+                            next.add(resolved);
+                        } else {
+                            unresolved.add(notation);
+                        }
+                    }
+                }
+            }
+            if (!unresolved.isEmpty()) {
+                next.addAll(resolveLeniently(unresolved).values());
+            }
+            level = next;
+        }
+        return reached;
+    }
+
+    private Map<String, File> resolveLeniently(Set<String> notations) {
+        List<org.gradle.api.artifacts.Dependency> dependencies = new ArrayList<>();
+        for (String notation : notations) {
+            dependencies.add(project.getDependencies().create(notation));
+        }
+        Configuration configuration = project.getConfigurations().detachedConfiguration(
+                dependencies.toArray(new org.gradle.api.artifacts.Dependency[0]));
+
+        Map<String, File> resolved = new HashMap<>();
+        for (ResolvedArtifact artifact : configuration.getResolvedConfiguration().getLenientConfiguration().getArtifacts()) {
+            ModuleVersionIdentifier id = artifact.getModuleVersion().getId();
+            String notation = notation(id.getGroup(), id.getName(), id.getVersion());
+            if (notations.contains(notation)) {
+                service.putResolvedPom(repositories, notation, artifact.getFile());
+                resolved.put(notation, artifact.getFile());
+            }
+        }
+        return resolved;
+    }
+
+    static String notation(String groupId, String artifactId, String version) {
+        return groupId + ":" + artifactId + ":" + version + "@pom";
+    }
+
+    /**
+     * @return the notations of the parent and import-scope POMs declared by the raw POM, skipping any whose
+     * coordinates cannot be worked out without building the model
+     */
+    private Set<String> referencedPoms(File pom) {
+        Set<String> notations = new LinkedHashSet<>();
+        Model model;
+        try (InputStream in = new FileInputStream(pom)) {
+            model = new MavenXpp3Reader().read(in, false);
+        } catch (Exception e) {
+            logger.debug("Unable to read " + pom + " to prefetch its parent and imported POMs", e);
+            return notations;
+        }
+
+        Parent parent = model.getParent();
+        if (parent != null) {
+            addIfLiteral(notations, parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        }
+        if (model.getDependencyManagement() != null) {
+            for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+                if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+                    addIfLiteral(notations, interpolate(model, dependency.getGroupId()), interpolate(model, dependency.getArtifactId()),
+                            interpolate(model, dependency.getVersion()));
+                }
+            }
+        }
+        return notations;
+    }
+
+    private static void addIfLiteral(Set<String> notations, String groupId, String artifactId, String version) {
+        if (isLiteral(groupId) && isLiteral(artifactId) && isLiteral(version)) {
+            notations.add(notation(groupId, artifactId, version));
+        }
+    }
+
+    private static boolean isLiteral(String value) {
+        return value != null && !value.isEmpty() && !value.contains("${");
+    }
+
+    /**
+     * Substitutes a value that is exactly one <code>${...}</code> expression referring to the POM's own
+     * coordinates or properties, which covers the usual <code>${project.version}</code> and
+     * <code>${foo.version}</code> imports.
+     */
+    private static String interpolate(Model model, String value) {
+        if (value == null || !value.startsWith("${") || !value.endsWith("}")) {
+            return value;
+        }
+        String expression = value.substring(2, value.length() - 1);
+        switch (expression) {
+            case "project.groupId":
+            case "pom.groupId":
+                return model.getGroupId() != null ? model.getGroupId() : model.getParent() != null ? model.getParent().getGroupId() : null;
+            case "project.version":
+            case "pom.version":
+                return model.getVersion() != null ? model.getVersion() : model.getParent() != null ? model.getParent().getVersion() : null;
+            case "project.parent.version":
+                return model.getParent() != null ? model.getParent().getVersion() : null;
+            default:
+                return model.getProperties().getProperty(expression, value);
+        }
+    }
+}
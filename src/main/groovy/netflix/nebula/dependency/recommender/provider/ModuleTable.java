@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A two-level group to name table, so modules can be looked up by the group and name Gradle already holds without
+ * building a <code>group:name</code> string for every lookup.
+ */
+public final class ModuleTable<V> {
+    private final Map<String, Map<String, V>> groups;
+    private final boolean concurrent;
+
+    /**
+     * A table that is filled once and then only read.
+     */
+    public ModuleTable() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent <code>true</code> for a table that is written to while it is read from other threads
+     */
+    public ModuleTable(boolean concurrent) {
+        this.concurrent = concurrent;
+        this.groups = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    /**
+     * @param coordinates values keyed by coordinates with the group and name separated by <code>separator</code>,
+     *                    keys without the separator are ignored
+     */
+    public static <V> ModuleTable<V> of(Map<String, V> coordinates, char separator) {
+        ModuleTable<V> table = new ModuleTable<>();
+        for (Map.Entry<String, V> entry : coordinates.entrySet()) {
+            table.put(entry.getKey(), separator, entry.getValue());
+        }
+        return table;
+    }
+
+    public V get(String group, String name) {
+        Map<String, V> names = groups.get(group);
+        return names == null ? null : names.get(name);
+    }
+
+    public boolean containsKey(String group, String name) {
+        Map<String, V> names = groups.get(group);
+        return names != null && names.containsKey(name);
+    }
+
+    public void put(String group, String name, V value) {
+        Map<String, V> names = groups.get(group);
+        if (names == null) {
+            if (concurrent) {
+                names = groups.computeIfAbsent(group, g -> new ConcurrentHashMap<>());
+            } else {
+                names = new HashMap<>();
+                groups.put(group, names);
+            }
+        }
+        names.put(name, value);
+    }
+
+    /**
+     * @return <code>false</code> if the coordinate does not contain the separator
+     */
+    public boolean put(String coordinate, char separator, V value) {
+        int index = coordinate.indexOf(separator);
+        if (index < 0) {
+            return false;
+        }
+        put(coordinate.substring(0, index), coordinate.substring(index + 1), value);
+        return true;
+    }
+
+    /**
+     * Copies every module of <code>other</code> into this table.
+     */
+    public void putAll(ModuleTable<V> other) {
+        for (Map.Entry<String, Map<String, V>> group : other.groups.entrySet()) {
+            Map<String, V> names = groups.get(group.getKey());
+            if (names == null) {
+                for (Map.Entry<String, V> name : group.getValue().entrySet()) {
+                    put(group.getKey(), name.getKey(), name.getValue());
+                }
+            } else {
+                names.putAll(group.getValue());
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    public void clear() {
+        groups.clear();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Stores flattened BOM dependencyManagement tables on disk so later builds can skip building the effective model.
+ * <p>
+ * Entries live in a directory named after the hash of the BOM content. Each entry records the checksum of every parent
+ * and imported POM along with the system and project properties the model could have been interpolated with, and is
+ * only used when all of them are unchanged. POMs are checked by resolving their coordinates again, so a changing or
+ * snapshot parent that was published again invalidates the entry even though Gradle still caches the old file. As the
+ * POMs are resolved from the repositories of the project looking the entry up, entries are safely shared by projects
+ * and builds with other repositories.
+ */
+class PersistentBomCache {
+    private static final int FORMAT_VERSION = 2;
+
+    private final Logger logger = Logging.getLogger(PersistentBomCache.class);
+    private final File directory;
+
+    PersistentBomCache(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param resolvePoms resolves parent and imported POMs by notation, see
+     *                    {@link MavenBomRecommendationsService#find(String, String, Function, Function)}
+     */
+    MavenBomRecommendationsService.ParsedBom load(String bomHash, Function<String, Object> projectProperties,
+                                                  Function<Collection<String>, Map<String, File>> resolvePoms) {
+        File[] entries = new File(directory, bomHash).listFiles();
+        if (entries == null) {
+            return null;
+        }
+        for (File entry : entries) {
+            if (!entry.getName().endsWith(".bin")) {
+                continue;
+            }
+            try {
+                MavenBomRecommendationsService.ParsedBom bom = read(entry);
+                if (bom != null && bom.isCompatibleWith(projectProperties)
+                        && bom.arePomsUnchanged(resolvePoms.apply(bom.getPoms().keySet()))) {
+                    //noinspection ResultOfMethodCallIgnored
+                    entry.setLastModified(System.currentTimeMillis());
+                    return bom;
+                }
+            } catch (IOException e) {
+                logger.debug("Ignoring unreadable BOM cache entry " + entry, e);
+            }
+        }
+        return null;
+    }
+
+    void store(String bomHash, MavenBomRecommendationsService.ParsedBom bom) {
+        File bomDirectory = new File(directory, bomHash);
+        File entry = new File(bomDirectory, variantHash(bom) + ".bin");
+        try {
+            Files.createDirectories(bomDirectory.toPath());
+            File temp = File.createTempFile(entry.getName(), ".tmp", bomDirectory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                write(out, bom);
+            }
+            Files.move(temp.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.info("Unable to write BOM cache entry " + entry, e);
+        }
+    }
+
+    /**
+     * Deletes entries that have not been used for <code>maxAgeDays</code>, then the least recently used entries
+     * until the cache is no bigger than <code>maxSizeBytes</code>.
+     */
+    void cleanup(int maxAgeDays, long maxSizeBytes) {
+        File[] bomDirectories = directory.listFiles();
+        if (bomDirectories == null) {
+            return;
+        }
+        long oldest = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeDays);
+        List<File> entries = new ArrayList<>();
+        long size = 0;
+        for (File bomDirectory : bomDirectories) {
+            File[] files = bomDirectory.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                if (file.lastModified() < oldest) {
+                    delete(file);
+                } else {
+                    entries.add(file);
+                    size += file.length();
+                }
+            }
+        }
+        entries.sort(Comparator.comparingLong(File::lastModified));
+        for (File entry : entries) {
+            if (size <= maxSizeBytes) {
+                break;
+            }
+            size -= entry.length();
+            delete(entry);
+        }
+        for (File bomDirectory : bomDirectories) {
+            String[] remaining = bomDirectory.list();
+            if (remaining != null && remaining.length == 0) {
+                delete(bomDirectory);
+            }
+        }
+    }
+
+    private void delete(File file) {
+        if (!file.delete()) {
+            logger.debug("Unable to delete BOM cache file " + file);
+        }
+    }
+
+    private static String variantHash(MavenBomRecommendationsService.ParsedBom bom) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        putAll(hasher, bom.getProjectProperties());
+        putAll(hasher, bom.getSystemProperties());
+        putAll(hasher, bom.getPoms());
+        return hasher.hash().toString();
+    }
+
+    private static void putAll(Hasher hasher, Map<String, String> values) {
+        for (Map.Entry<String, String> value : new TreeMap<>(values).entrySet()) {
+            hasher.putString(value.getKey(), StandardCharsets.UTF_8).putByte((byte) 0);
+            hasher.putString(String.valueOf(value.getValue()), StandardCharsets.UTF_8).putByte((byte) 0);
+        }
+        hasher.putByte((byte) 1);
+    }
+
+    private static void write(DataOutputStream out, MavenBomRecommendationsService.ParsedBom bom) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(bom.getId());
+        writeMap(out, bom.getProjectProperties());
+        writeMap(out, bom.getSystemProperties());
+        writeMap(out, bom.getPoms());
+        out.writeBoolean(bom.getRecommendations() != null);
+        if (bom.getRecommendations() != null) {
+            writeMap(out, bom.getRecommendations());
+        }
+    }
+
+    private static MavenBomRecommendationsService.ParsedBom read(File entry) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String id = in.readUTF();
+            Map<String, String> projectProperties = readMap(in);
+            Map<String, String> systemProperties = readMap(in);
+            Map<String, String> poms = readMap(in);
+            Map<String, String> recommendations = in.readBoolean() ? readMap(in) : null;
+            return new MavenBomRecommendationsService.ParsedBom(id, recommendations, projectProperties, systemProperties, poms);
+        }
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, String> map) throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeBoolean(entry.getValue() != null);
+            if (entry.getValue() != null) {
+                out.writeUTF(entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, String> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = in.readUTF();
+            map.put(key, in.readBoolean() ? in.readUTF() : null);
+        }
+        return map;
+    }
+}
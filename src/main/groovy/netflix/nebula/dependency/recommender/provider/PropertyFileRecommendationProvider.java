@@ -2,29 +2,24 @@ package netflix.nebula.dependency.recommender.provider;
 
 import org.gradle.api.Project;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Properties;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
-public class PropertyFileRecommendationProvider extends FileBasedRecommendationProvider {
-    private Properties recommendations;
+public class PropertyFileRecommendationProvider extends FileBasedRecommendationProvider implements EnumerableRecommendationProvider, MatchCountingRecommendationProvider, GlobRecommendationProvider {
+    private volatile Map<String, String> recommendations;
 
     private FuzzyVersionResolver fuzzyResolver = new FuzzyVersionResolver() {
         @Override
         protected Collection<String> propertyNames() {
-            return recommendations.stringPropertyNames();
+            return recommendations.keySet();
         }
 
         @Override
         protected String propertyValue(String name) {
-            String property = recommendations.getProperty(name);
-            if (property == null) {
-                return null;
-            }
-            return property.split(" ")[0].split("#")[0];
+            return recommendations.get(name);
         }
     };
 
@@ -34,38 +29,63 @@ public class PropertyFileRecommendationProvider extends FileBasedRecommendationP
 
     @Override
     public String getVersion(String org, String name) throws Exception {
-        if(recommendations == null) {
-            recommendations = new Properties();
-            try (InputStream inputStream = inputProvider.getInputStream()) {
-                recommendations.load(new ColonFilteringReader(new InputStreamReader(inputStream)));
+        load();
+        return fuzzyResolver.versionOf(org, name);
+    }
+
+    @Override
+    public Collection<String> getCoordinates() throws Exception {
+        List<String> coordinates = new ArrayList<>();
+        for (String key : load().keySet()) {
+            if (key.indexOf(':') >= 0 && key.indexOf('*') < 0) {
+                coordinates.add(key);
             }
         }
-        return fuzzyResolver.versionOf(org + "/" + name);
+        return coordinates;
     }
 
-    /**
-     * Because unfortunately Properties.load treats colons as an assignment operator
-     */
-    private class ColonFilteringReader extends Reader {
-        Reader reader;
-
-        public ColonFilteringReader(Reader reader) {
-            this.reader = reader;
+    @Override
+    public boolean hasFallback() throws Exception {
+        for (String key : load().keySet()) {
+            if (key.indexOf('*') >= 0) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        @SuppressWarnings("NullableProblems")
-        @Override
-        public int read(char[] cbuf, int off, int len) throws IOException {
-            int pos = reader.read(cbuf, off, len);
-            for(int i = 0; i < cbuf.length; i++)
-                if(cbuf[i] == ':')
-                    cbuf[i] = '/';
-            return pos;
-        }
+    @Override
+    public void setStats(RecommendationStatsService.ProviderStats stats) {
+        fuzzyResolver.setStats(stats);
+    }
 
-        @Override
-        public void close() throws IOException {
-            reader.close();
+    @Override
+    public Map<String, String> getGlobVersions() throws Exception {
+        load();
+        return fuzzyResolver.globVersions();
+    }
+
+    private Map<String, String> load() throws Exception {
+        awaitPrefetch();
+        loadSource();
+        return recommendations;
+    }
+
+    @Override
+    protected void loadSource() throws Exception {
+        if(recommendations == null) {
+            synchronized (this) {
+                if(recommendations == null) {
+                    // a source that fails to load is only reported once, and recommends nothing from then on
+                    Map<String, String> loaded = Collections.emptyMap();
+                    try {
+                        loaded = parseSource(RecommendationPropertiesParser::parse);
+                    } finally {
+                        recommendations = loaded;
+                    }
+                    fuzzyResolver.resolveAliases();
+                }
+            }
         }
     }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * The flat <code>group:name -> version</code> table of a BOM, published next to it so consumers can look versions up
+ * without building the BOM's Maven model.
+ * <p>
+ * The index is memory-mapped and read in place. It holds a table of the distinct strings of the BOM sorted by their
+ * UTF-8 bytes, the modules as <code>(group, name, version)</code> string numbers sorted by group and name, and an open
+ * addressing hash table of the modules keyed by {@link #hash(String, String)}, which only depends on
+ * {@link String#hashCode()}, so a lookup probes a slot or two. The layout is:
+ * <pre>
+ * int    magic, "NBRI"
+ * int    format version
+ * int    string count
+ * int    module count
+ * int    slot count, a power of two
+ * int    string data length
+ * int    BOM id string, as in "nebula.dependency-recommender uses mavenBom: ..."
+ * int    SHA-256 of the POM the index was published with, a string
+ * int[]  string offsets into the string data, string count + 1 of them
+ * int[]  modules, 3 string numbers each
+ * int[]  slots, the module number + 1, or 0 for an empty slot
+ * byte[] string data
+ * long   CRC32 of everything before it
+ * </pre>
+ */
+public final class RecommendationIndex {
+    public static final String CLASSIFIER = "recommendations";
+    public static final String EXTENSION = "idx";
+
+    private static final int MAGIC = 0x4e425249;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_LENGTH = 8 * 4;
+    private static final Comparator<byte[]> BYTES = RecommendationIndex::compare;
+
+    private final ByteBuffer index;
+    private final int modules;
+    private final int mask;
+    private final int offsets;
+    private final int entries;
+    private final int slots;
+    private final int data;
+    private final String bomId;
+    private final String pomHash;
+    // strings are decoded the first time they are needed, racing threads decode the same value
+    private final String[] decoded;
+
+    private RecommendationIndex(ByteBuffer index) {
+        this.index = index;
+        int strings = index.getInt(8);
+        this.modules = index.getInt(12);
+        this.mask = index.getInt(16) - 1;
+        this.offsets = HEADER_LENGTH;
+        this.entries = offsets + (strings + 1) * 4;
+        this.slots = entries + modules * 3 * 4;
+        this.data = slots + (mask + 1) * 4;
+        this.decoded = new String[strings];
+        this.bomId = string(index.getInt(24));
+        this.pomHash = string(index.getInt(28));
+    }
+
+    /**
+     * @throws IOException if the file is not an index, is of an unknown format version, or is corrupt
+     */
+    public static RecommendationIndex open(File file) throws IOException {
+        MappedByteBuffer index;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (index.limit() < HEADER_LENGTH + 4 + 8 || index.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a recommendation index");
+        }
+        if (index.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(file + " has unsupported recommendation index format version " + index.getInt(4));
+        }
+        int checksummed = index.limit() - 8;
+        ByteBuffer content = index.duplicate();
+        content.limit(checksummed);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        long strings = index.getInt(8);
+        long modules = index.getInt(12);
+        int slots = index.getInt(16);
+        if (crc.getValue() != index.getLong(checksummed) || Integer.bitCount(slots) != 1 || slots < modules
+                || HEADER_LENGTH + (strings + 1) * 4 + modules * 12 + slots * 4L + index.getInt(20) != checksummed) {
+            throw new IOException(file + " is a corrupt recommendation index");
+        }
+        return new RecommendationIndex(index);
+    }
+
+    /**
+     * @param versions the version of each <code>group:name</code>, coordinates without a version are left out
+     */
+    public static void write(File file, String bomId, String pomHash, Map<String, String> versions) throws IOException {
+        TreeMap<byte[], Integer> numbers = new TreeMap<>(BYTES);
+        List<String[]> entries = new ArrayList<>();
+        numbers.put(bytes(bomId), 0);
+        numbers.put(bytes(pomHash), 0);
+        for (Map.Entry<String, String> version : versions.entrySet()) {
+            int separator = version.getKey().indexOf(':');
+            if (separator < 0 || version.getValue() == null || version.getValue().isEmpty()) {
+                continue;
+            }
+            String[] entry = {version.getKey().substring(0, separator), version.getKey().substring(separator + 1), version.getValue()};
+            for (String string : entry) {
+                numbers.put(bytes(string), 0);
+            }
+            entries.add(entry);
+        }
+        int number = 0;
+        int length = 0;
+        for (Map.Entry<byte[], Integer> string : numbers.entrySet()) {
+            string.setValue(number++);
+            length += string.getKey().length;
+        }
+        // string numbers follow the order of the strings, so the modules are sorted by their group and name numbers
+        List<int[]> modules = new ArrayList<>();
+        for (String[] entry : entries) {
+            modules.add(new int[]{numbers.get(bytes(entry[0])), numbers.get(bytes(entry[1])), numbers.get(bytes(entry[2])),
+                    hash(entry[0], entry[1])});
+        }
+        modules.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+        // at most half full, so probe sequences stay short
+        int[] slots = new int[Integer.highestOneBit(Math.max(1, modules.size()) * 2 - 1) << 1];
+        for (int i = 0; i < modules.size(); i++) {
+            int slot = modules.get(i)[3] & (slots.length - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (OutputStream stream = Files.newOutputStream(file.toPath())) {
+            CheckedOutputStream checked = new CheckedOutputStream(stream, new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(numbers.size());
+            out.writeInt(modules.size());
+            out.writeInt(slots.length);
+            out.writeInt(length);
+            out.writeInt(numbers.get(bytes(bomId)));
+            out.writeInt(numbers.get(bytes(pomHash)));
+            int offset = 0;
+            for (byte[] string : numbers.keySet()) {
+                out.writeInt(offset);
+                offset += string.length;
+            }
+            out.writeInt(offset);
+            for (int[] module : modules) {
+                out.writeInt(module[0]);
+                out.writeInt(module[1]);
+                out.writeInt(module[2]);
+            }
+            for (int slot : slots) {
+                out.writeInt(slot);
+            }
+            for (byte[] string : numbers.keySet()) {
+                out.write(string);
+            }
+            out.flush();
+            new DataOutputStream(stream).writeLong(checked.getChecksum().getValue());
+        }
+    }
+
+    public String getBomId() {
+        return bomId;
+    }
+
+    /**
+     * @return the SHA-256 of the POM the index was published with, as {@link MavenBomRecommendationsService#hash(File)}
+     */
+    public String getPomHash() {
+        return pomHash;
+    }
+
+    public int size() {
+        return modules;
+    }
+
+    /**
+     * @return the version of the module, or <code>null</code>
+     */
+    public String getVersion(String group, String name) {
+        int slot = hash(group, name) & mask;
+        int module;
+        while ((module = index.getInt(slots + slot * 4)) != 0) {
+            int entry = entries + (module - 1) * 12;
+            if (string(index.getInt(entry + 4)).equals(name) && string(index.getInt(entry)).equals(group)) {
+                return string(index.getInt(entry + 8));
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return the <code>group:name</code> of every module in the order of the index, built from the string table as
+     * each one is read
+     */
+    public List<String> getCoordinates() {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int i) {
+                if (i < 0 || i >= modules) {
+                    throw new IndexOutOfBoundsException(String.valueOf(i));
+                }
+                int entry = entries + i * 12;
+                return string(index.getInt(entry)) + ':' + string(index.getInt(entry + 4));
+            }
+
+            @Override
+            public int size() {
+                return modules;
+            }
+        };
+    }
+
+    /**
+     * @return the version of every module, keyed by <code>group:name</code>, in the order of the index
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> versions = new LinkedHashMap<>();
+        for (int i = 0; i < modules; i++) {
+            int entry = entries + i * 12;
+            versions.put(string(index.getInt(entry)) + ':' + string(index.getInt(entry + 4)), string(index.getInt(entry + 8)));
+        }
+        return versions;
+    }
+
+    /**
+     * Part of the format, so it must not change within a format version.
+     */
+    static int hash(String group, String name) {
+        int hash = group.hashCode() * 31 + name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private String string(int number) {
+        String string = decoded[number];
+        if (string == null) {
+            int start = data + index.getInt(offsets + number * 4);
+            byte[] bytes = new byte[data + index.getInt(offsets + number * 4 + 4) - start];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = index.get(start + i);
+            }
+            string = new String(bytes, StandardCharsets.UTF_8);
+            decoded[number] = string;
+        }
+        return string;
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            int compared = Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a recommendations properties file in a single pass over its characters, which are decoded into one array
+ * that the parser indexes directly.
+ * <p>
+ * Lines follow the {@link java.util.Properties#load(java.io.Reader)} format, except that a colon is part of the key
+ * rather than a separator, so <code>group:name = version</code> needs no escaping. Values are cut at the first space
+ * and at the first <code>#</code>, which drops trailing comments.
+ * <p>
+ * Files used to be read with every colon replaced by a slash, so a slash in a key or in an alias is read as a colon,
+ * and <code>group/name = version</code> still recommends a version for <code>group:name</code>.
+ */
+final class RecommendationPropertiesParser {
+    private final char[] chars;
+    private final int end;
+    private int pos;
+    private final StringBuilder token = new StringBuilder();
+
+    private RecommendationPropertiesParser(CharBuffer buffer) {
+        this.chars = buffer.array();
+        this.pos = buffer.arrayOffset() + buffer.position();
+        this.end = buffer.arrayOffset() + buffer.limit();
+    }
+
+    /**
+     * @return the recommendations in file order, later duplicates winning
+     */
+    static Map<String, String> parse(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, Charset.defaultCharset());
+        char[] chars = new char[8192];
+        int length = 0;
+        int read;
+        while ((read = reader.read(chars, length, chars.length - length)) != -1) {
+            length += read;
+            if (length == chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            }
+        }
+        return parse(CharBuffer.wrap(chars, 0, length));
+    }
+
+    static Map<String, String> parse(CharSequence properties) {
+        return parse(CharBuffer.wrap(properties.toString().toCharArray()));
+    }
+
+    private static Map<String, String> parse(CharBuffer buffer) {
+        return new RecommendationPropertiesParser(buffer).parse();
+    }
+
+    private Map<String, String> parse() {
+        Map<String, String> recommendations = new LinkedHashMap<>();
+        while (pos < end) {
+            skipWhitespace();
+            if (pos >= end) {
+                break;
+            }
+            char c = chars[pos];
+            if (isLineEnd(c)) {
+                pos++;
+            } else if (skipContinuation()) {
+                // nothing before the continuation, the next line starts the logical line
+            } else if (c == '#' || c == '!') {
+                skipLine();
+            } else {
+                String key = readKey();
+                skipBlank();
+                if (pos < end && chars[pos] == '=') {
+                    pos++;
+                    skipBlank();
+                }
+                String value = readValue();
+                if (value.startsWith("$")) {
+                    value = value.replace('/', ':');
+                }
+                recommendations.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(recommendations);
+    }
+
+    private String readKey() {
+        token.setLength(0);
+        while (pos < end) {
+            char c = chars[pos];
+            if (c == '=' || isWhitespace(c) || isLineEnd(c)) {
+                break;
+            }
+            if (c == '\\') {
+                if (!readEscape()) {
+                    break;
+                }
+            } else {
+                token.append(c == '/' ? ':' : c);
+                pos++;
+            }
+        }
+        return token.toString();
+    }
+
+    /**
+     * Reads the rest of the logical line, keeping what precedes the first space and the first <code>#</code>.
+     */
+    private String readValue() {
+        token.setLength(0);
+        boolean cut = false;
+        while (pos < end) {
+            char c = chars[pos];
+            if (isLineEnd(c)) {
+                break;
+            }
+            if (c == '\\') {
+                int length = token.length();
+                if (!readEscape()) {
+                    break;
+                }
+                if (cut) {
+                    token.setLength(length);
+                } else if (token.length() > length && isCut(token.charAt(length))) {
+                    token.setLength(length);
+                    cut = true;
+                }
+            } else {
+                if (!cut && isCut(c)) {
+                    cut = true;
+                }
+                if (!cut) {
+                    token.append(c);
+                }
+                pos++;
+            }
+        }
+        return token.toString();
+    }
+
+    /**
+     * Appends the character escaped by the backslash at the current position, or joins the next line when the
+     * backslash ends the line.
+     *
+     * @return <code>false</code> when the backslash ends the file, which ends the logical line
+     */
+    private boolean readEscape() {
+        pos++;
+        if (pos >= end) {
+            return false;
+        }
+        char c = chars[pos++];
+        switch (c) {
+            case '\r':
+                if (pos < end && chars[pos] == '\n') {
+                    pos++;
+                }
+                skipWhitespace();
+                return true;
+            case '\n':
+                skipWhitespace();
+                return true;
+            case 't':
+                token.append('\t');
+                return true;
+            case 'n':
+                token.append('\n');
+                return true;
+            case 'r':
+                token.append('\r');
+                return true;
+            case 'f':
+                token.append('\f');
+                return true;
+            case 'u':
+                if (pos + 4 > end) {
+                    throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                }
+                try {
+                    token.append((char) Integer.parseInt(new String(chars, pos, 4), 16));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed \\uxxxx encoding.", e);
+                }
+                pos += 4;
+                return true;
+            default:
+                token.append(c);
+                return true;
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(chars[pos])) {
+            pos++;
+        }
+    }
+
+    /**
+     * Skips whitespace and line continuations.
+     */
+    private void skipBlank() {
+        do {
+            skipWhitespace();
+        } while (skipContinuation());
+    }
+
+    /**
+     * @return <code>true</code> when a backslash ending the line was skipped
+     */
+    private boolean skipContinuation() {
+        if (pos + 1 >= end || chars[pos] != '\\' || !isLineEnd(chars[pos + 1])) {
+            return false;
+        }
+        pos += chars[pos + 1] == '\r' && pos + 2 < end && chars[pos + 2] == '\n' ? 3 : 2;
+        return true;
+    }
+
+    private void skipLine() {
+        while (pos < end && !isLineEnd(chars[pos])) {
+            pos++;
+        }
+    }
+
+    private static boolean isCut(char c) {
+        return c == ' ' || c == '#';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static boolean isLineEnd(char c) {
+        return c == '\n' || c == '\r';
+    }
+}
@@ -19,10 +19,12 @@ import groovy.lang.Closure;
 import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin;
 import netflix.nebula.dependency.recommender.RecommendationStrategies;
 import org.gradle.api.*;
+import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.artifacts.Dependency;
 import org.gradle.api.internal.ConfigureByMapAction;
 import org.gradle.api.internal.DefaultNamedDomainObjectList;
 import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Provider;
 import org.gradle.util.ConfigureUtil;
 import org.gradle.util.GradleVersion;
 
@@ -30,6 +32,7 @@ import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.Executors;
 
 import static netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin.CORE_BOM_SUPPORT_ENABLED;
 
@@ -40,17 +43,29 @@ public class RecommendationProviderContainer {
     private RecommendationStrategies strategy = RecommendationStrategies.ConflictResolved;
     private MavenBomRecommendationProvider mavenBomProvider;
     private Boolean strictMode = false;
+    private Boolean prefetch;
     private Set<String> excludedConfigurations = new HashSet<>();
     private Set<String> excludedConfigurationPrefixes = new HashSet<>();
     private Set<String> reasons = new HashSet<>();
+    private volatile boolean frozen = false;
+    private volatile int revision = 0;
+    private volatile RecommendationSnapshot snapshot;
+    private volatile RecommendedVersions recommendedVersions;
+    private final RecommendationStatsService statsService;
+    private volatile RecommendationStatsService.ProjectStats stats;
+    private volatile List<RecommendationStatsService.ProviderStats> providerStats;
     
     // Make strategies available without import
     public static final RecommendationStrategies OverrideTransitives = RecommendationStrategies.OverrideTransitives;
     public static final RecommendationStrategies ConflictResolved = RecommendationStrategies.ConflictResolved;
 
+    private static final String PREFETCH_PROPERTY = "nebula.dependency-recommender.prefetch";
+
     public RecommendationProviderContainer(Project project) {
         createList(project);
         this.project = project;
+        this.statsService = RecommendationStatsService.register(project).get();
+        this.prefetch = project.getProviders().systemProperty(PREFETCH_PROPERTY).map(Boolean::valueOf).getOrElse(false);
         this.mavenBomProvider = getMavenBomRecommendationProvider();
         providers.add(this.mavenBomProvider);
     }
@@ -85,12 +100,14 @@ public class RecommendationProviderContainer {
     public <T extends RecommendationProvider> T addProvider(T provider, Action<? super T> configureAction) {
         configureAction.execute(provider);
         providers.add(provider);
+        providersChanged();
         return provider;
     }
 
     public <T extends RecommendationProvider> T addFirst(T provider) {
         providers.remove(provider);
         providers.add(0, provider);
+        providersChanged();
         return provider;
     }
 
@@ -199,19 +216,143 @@ public class RecommendationProviderContainer {
         return mavenBomProvider;
     }
 
+    /**
+     * Signals that no more providers will be added or reconfigured, so the recommendations of the providers can be
+     * merged once instead of polling the providers on each lookup. Called when the first configuration of the project
+     * or of one of its subprojects resolves, so providers can still be reconfigured in <code>afterEvaluate</code>.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * @return a number that changes whenever providers are added, so results cached from
+     * {@link #getRecommendedVersion(String, String)} can be discarded
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    private void providersChanged() {
+        snapshot = null;
+        recommendedVersions = null;
+        providerStats = null;
+        revision++;
+    }
+
     public String getRecommendedVersion(String group, String name) {
-        // providers are queried in LIFO order
-        for (int i = providers.size()-1; i >= 0; i--) {
-            try {
-                String version = providers.get(i).getVersion(group, name);
-                if (version != null) {
-                    return version;
+        RecommendationStatsService.ProjectStats stats = getStats();
+        if (stats == null) {
+            return lookup(group, name);
+        }
+        long start = System.nanoTime();
+        String version = lookup(group, name);
+        stats.getLookups().record(start, version);
+        return version;
+    }
+
+    private String lookup(String group, String name) {
+        if (!frozen) {
+            // providers are queried in LIFO order
+            return RecommendationSnapshot.poll(providers, getProviderStats(), group, name, project.getLogger(), null);
+        }
+        return getSnapshot().getRecommendedVersion(group, name);
+    }
+
+    private RecommendationSnapshot getSnapshot() {
+        RecommendationSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = new RecommendationSnapshot(new ArrayList<>(providers), getProviderStats(), lookupStats(), project.getLogger());
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * The recommendations of this container as a value that tasks can keep instead of the container. When the
+     * configuration cache is stored it is computed and stored along with the task, so a build reusing the cache
+     * restores it without reading any recommendation source.
+     *
+     * @return the recommendations of every provider, computed once the providers are frozen
+     */
+    public Provider<RecommendedVersions> getRecommendedVersions() {
+        return project.getProviders().provider(this::exportRecommendedVersions);
+    }
+
+    private RecommendedVersions exportRecommendedVersions() {
+        if (!frozen) {
+            RecommendationSnapshot current = new RecommendationSnapshot(new ArrayList<>(providers), getProviderStats(), lookupStats(), project.getLogger());
+            return current.export(reasons);
+        }
+        RecommendedVersions current = recommendedVersions;
+        if (current == null) {
+            // BOMs add their reasons when the snapshot reads them, so the reasons are copied after it is taken
+            current = getSnapshot().export(reasons);
+            recommendedVersions = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return the counters this project's lookups are recorded in, or <code>null</code> when they are not counted in
+     * this build, see {@link RecommendationStatsService}
+     */
+    public RecommendationStatsService.ProjectStats getStats() {
+        RecommendationStatsService.ProjectStats current = stats;
+        if (current == null && statsService.isEnabled()) {
+            current = statsService.project(project.getPath());
+            stats = current;
+            // a snapshot taken while projects were configured doesn't count its providers' lookups
+            snapshot = null;
+        }
+        return current;
+    }
+
+    private RecommendationStatsService.ProviderStats lookupStats() {
+        RecommendationStatsService.ProjectStats current = getStats();
+        return current == null ? null : current.getLookups();
+    }
+
+    /**
+     * @return the counters of each provider, in the same order as the providers, or <code>null</code> when lookups
+     * are not counted
+     */
+    private List<RecommendationStatsService.ProviderStats> getProviderStats() {
+        RecommendationStatsService.ProjectStats stats = getStats();
+        if (stats == null) {
+            return null;
+        }
+        List<RecommendationStatsService.ProviderStats> current = providerStats;
+        if (current == null) {
+            current = new ArrayList<>();
+            for (int i = 0; i < providers.size(); i++) {
+                RecommendationProvider provider = providers.get(i);
+                RecommendationStatsService.ProviderStats counters = stats.provider(label(provider, i));
+                if (provider instanceof MatchCountingRecommendationProvider) {
+                    ((MatchCountingRecommendationProvider) provider).setStats(counters);
                 }
-            } catch(Exception e) {
-                project.getLogger().error("Exception while polling provider " + providers.get(i).getName() + " for version", e);
+                current.add(counters);
             }
+            providerStats = current;
+        }
+        return current;
+    }
+
+    private static String label(RecommendationProvider provider, int index) {
+        // unnamed providers are given a new name each time they are asked for it
+        if (provider instanceof AbstractRecommendationProvider && ((AbstractRecommendationProvider) provider).name == null) {
+            return provider.getClass().getSimpleName() + "#" + index;
         }
-        return null;
+        return provider.getName();
     }
 
     public RecommendationStrategies getStrategy() {
@@ -229,6 +370,32 @@ public class RecommendationProviderContainer {
     public void setStrictMode(Boolean strict) {
         strictMode = strict;
     }
+
+    public Boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * When enabled, every file based source starts loading in the background once the project has been evaluated,
+     * rather than on the thread of its first lookup. Defaults to the
+     * <code>nebula.dependency-recommender.prefetch</code> system property.
+     */
+    public void setPrefetch(Boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Starts loading the sources of the file based providers on the pool BOMs are built on, see
+     * {@link #setPrefetch(Boolean)}.
+     */
+    public void prefetchSources() {
+        final MavenBomRecommendationsService service = MavenBomRecommendationsService.register(project).get();
+        for (RecommendationProvider provider : providers) {
+            if (provider instanceof FileBasedRecommendationProvider) {
+                ((FileBasedRecommendationProvider) provider).prefetch(task -> service.submit(Executors.callable(task)));
+            }
+        }
+    }
     
     public void excludeConfigurations(String ... names) {
         excludedConfigurations.addAll(Arrays.asList(names));
@@ -260,19 +427,23 @@ public class RecommendationProviderContainer {
     //we add them as regular dependencies so we can resolve them in detached configuration and read the content
     //this is useful for publishing when we copy content from applied BOMs to published BOM
     private static class CoreBomSupportProvider extends MavenBomRecommendationProvider {
+        private Configuration rawPoms;
 
         CoreBomSupportProvider(Project project, String configName, Set<String> reasons) {
             super(project, configName, reasons);
         }
 
         @Override
-        Set<File> getFilesOnConfiguration() {
-            List<Dependency> rawPomDependencies = new ArrayList<>();
-            for(org.gradle.api.artifacts.Dependency dependency: configuration.getDependencies()) {
-                rawPomDependencies.add(project.getDependencies().create(dependency.getGroup() + ":" + dependency.getName() + ":" + dependency.getVersion() + "@pom"));
+        synchronized Configuration getBomConfiguration() {
+            if (rawPoms == null) {
+                List<Dependency> rawPomDependencies = new ArrayList<>();
+                for(org.gradle.api.artifacts.Dependency dependency: configuration.getDependencies()) {
+                    rawPomDependencies.add(project.getDependencies().create(dependency.getGroup() + ":" + dependency.getName() + ":" + dependency.getVersion() + "@pom"));
+                }
+                rawPoms = project.getConfigurations().detachedConfiguration(
+                        rawPomDependencies.toArray(new org.gradle.api.artifacts.Dependency[0]));
             }
-            return project.getConfigurations().detachedConfiguration(
-                    rawPomDependencies.toArray(new org.gradle.api.artifacts.Dependency[0])).resolve();
+            return rawPoms;
         }
     }
 }
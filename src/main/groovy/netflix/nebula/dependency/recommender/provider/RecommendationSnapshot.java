@@ -0,0 +1,161 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import org.gradle.api.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The recommendations of a container's providers once they have stopped changing, merged when the snapshot is taken.
+ * <p>
+ * Every coordinate a provider lists is polled once, in LIFO order exactly as
+ * {@link RecommendationProviderContainer#getRecommendedVersion(String, String)} does, into a single table of exact
+ * coordinates. Coordinates no provider lists can only be recommended by the providers that don't list all of theirs:
+ * when those only fall back to globs, their globs are the single fallback, otherwise those providers are polled.
+ */
+class RecommendationSnapshot {
+    private final Map<String, String> listedVersions = new LinkedHashMap<>();
+    private final List<Map<String, String>> globs = new ArrayList<>();
+    private final List<RecommendationProvider> fallback = new ArrayList<>();
+    private final List<RecommendationStatsService.ProviderStats> fallbackStats;
+    private final boolean complete;
+    private final RecommendedVersions recommendations;
+    private final RecommendationStatsService.ProviderStats lookups;
+    private final Logger logger;
+
+    /**
+     * @param providers the providers in the order they were added, later providers take precedence
+     * @param stats     the counters of each provider, in the same order, or <code>null</code>
+     * @param lookups   where to count the lookups answered by the merged recommendations, or <code>null</code>
+     */
+    RecommendationSnapshot(List<RecommendationProvider> providers, List<RecommendationStatsService.ProviderStats> stats,
+                           RecommendationStatsService.ProviderStats lookups, Logger logger) {
+        this.fallbackStats = stats == null ? null : new ArrayList<>();
+        this.lookups = lookups;
+        this.logger = logger;
+
+        List<String> coordinates = new ArrayList<>();
+        boolean listedAll = true;
+        for (int i = 0; i < providers.size(); i++) {
+            RecommendationProvider provider = providers.get(i);
+            boolean listed = false;
+            if (provider instanceof EnumerableRecommendationProvider) {
+                EnumerableRecommendationProvider enumerable = (EnumerableRecommendationProvider) provider;
+                try {
+                    coordinates.addAll(enumerable.getCoordinates());
+                    listed = !enumerable.hasFallback();
+                } catch (Exception e) {
+                    logger.error("Exception while listing the recommendations of provider " + provider.getName(), e);
+                    listedAll = false;
+                }
+            }
+            if (!listed) {
+                fallback.add(provider);
+                if (fallbackStats != null) {
+                    fallbackStats.add(stats.get(i));
+                }
+            }
+        }
+
+        Set<RecommendationProvider> failed = new HashSet<>();
+        for (String coordinate : coordinates) {
+            int separator = coordinate.indexOf(':');
+            if (separator > 0 && !listedVersions.containsKey(coordinate)) {
+                listedVersions.put(coordinate, poll(providers, stats, coordinate.substring(0, separator),
+                        coordinate.substring(separator + 1), logger, failed));
+            }
+        }
+
+        boolean globsOnly = true;
+        for (int i = fallback.size() - 1; i >= 0; i--) {
+            RecommendationProvider provider = fallback.get(i);
+            if (!(provider instanceof GlobRecommendationProvider)) {
+                globsOnly = false;
+                continue;
+            }
+            try {
+                globs.add(((GlobRecommendationProvider) provider).getGlobVersions());
+            } catch (Exception e) {
+                globsOnly = false;
+            }
+        }
+        this.complete = listedAll && failed.isEmpty() && globsOnly;
+        if (globsOnly) {
+            fallback.clear();
+            if (fallbackStats != null) {
+                fallbackStats.clear();
+            }
+        }
+        this.recommendations = new RecommendedVersions(listedVersions, globsOnly ? globs : Collections.emptyList(),
+                Collections.emptySet(), complete);
+    }
+
+    String getRecommendedVersion(String group, String name) {
+        String version = recommendations.getVersion(group, name);
+        boolean merged = version != null || fallback.isEmpty() || recommendations.lists(group, name);
+        if (lookups != null) {
+            lookups.recordMemo(merged);
+        }
+        return merged ? version : poll(fallback, fallbackStats, group, name, logger, null);
+    }
+
+    /**
+     * Captures the recommendations of this snapshot. Providers that recommend versions for coordinates they don't list
+     * can only be captured when those versions come from globs.
+     */
+    RecommendedVersions export(Set<String> reasons) {
+        return new RecommendedVersions(listedVersions, globs, reasons, complete);
+    }
+
+    /**
+     * Providers are queried in LIFO order
+     *
+     * @param stats  the counters of each provider, or <code>null</code> when lookups are not counted
+     * @param failed where to add the providers that fail, or <code>null</code>
+     */
+    static String poll(List<RecommendationProvider> providers, List<RecommendationStatsService.ProviderStats> stats,
+                       String group, String name, Logger logger, Set<RecommendationProvider> failed) {
+        for (int i = providers.size() - 1; i >= 0; i--) {
+            RecommendationStatsService.ProviderStats counters = stats == null ? null : stats.get(i);
+            long start = counters == null ? 0 : System.nanoTime();
+            try {
+                String version = providers.get(i).getVersion(group, name);
+                if (counters != null) {
+                    counters.record(start, version);
+                }
+                if (version != null) {
+                    return version;
+                }
+            } catch (Exception e) {
+                if (counters != null) {
+                    counters.recordError(start);
+                }
+                if (failed != null) {
+                    failed.add(providers.get(i));
+                }
+                logger.error("Exception while polling provider " + providers.get(i).getName() + " for version", e);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import netflix.nebula.dependency.recommender.RecommendationStatsTask;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.execution.TaskExecutionGraph;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Build-scoped collector of how much work the recommender does in each project: provider lookups, glob and exact
+ * matches, BOM parsing and <code>eachDependency</code> callbacks. Reported by the <code>recommendationStats</code>
+ * task.
+ * <p>
+ * Lookups are only timed and counted when a <code>recommendationStats</code> task is in the task graph, whether it was
+ * requested or pulled in by another task. Until the task graph is ready nothing is counted, so resolutions made while
+ * projects are configured are left out. The decision is stored with the configuration cache, so it holds when the
+ * cache is reused.
+ */
+public abstract class RecommendationStatsService implements BuildService<RecommendationStatsService.Params> {
+    public static final String NAME = "nebulaRecommendationStats";
+
+    private final ConcurrentMap<String, ProjectStats> projects = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    public interface Params extends BuildServiceParameters {
+        /**
+         * @return whether a stats task is in the task graph, only known once the graph is ready
+         */
+        Property<Boolean> getEnabled();
+    }
+
+    public RecommendationStatsService() {
+        // only set when the service is restored from the configuration cache, which is stored after the graph is ready
+        this.enabled = getParameters().getEnabled().getOrElse(false);
+    }
+
+    public static Provider<RecommendationStatsService> register(Project project) {
+        final Gradle gradle = project.getGradle();
+        final AtomicReference<Boolean> scheduled = new AtomicReference<>();
+        final boolean[] registered = {false};
+        final Provider<RecommendationStatsService> service = gradle.getSharedServices().registerIfAbsent(NAME, RecommendationStatsService.class, spec -> {
+            registered[0] = true;
+            spec.getParameters().getEnabled().set(project.getProviders().provider(scheduled::get));
+        });
+        if (registered[0]) {
+            gradle.getTaskGraph().whenReady(graph -> {
+                scheduled.set(isScheduled(graph));
+                service.get().enabled = scheduled.get();
+            });
+        }
+        return service;
+    }
+
+    /**
+     * @return <code>true</code> when lookups are counted, see {@link #isScheduled(TaskExecutionGraph)}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return <code>true</code> when the graph runs a <code>recommendationStats</code> task
+     */
+    static boolean isScheduled(TaskExecutionGraph graph) {
+        for (Task task : graph.getAllTasks()) {
+            if (task instanceof RecommendationStatsTask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ProjectStats project(String path) {
+        return projects.computeIfAbsent(path, ProjectStats::new);
+    }
+
+    /**
+     * Counters for one provider, or for a whole container. Matches are only counted by providers that tell exact
+     * matches from glob matches.
+     */
+    public static final class ProviderStats {
+        final LongAdder lookups = new LongAdder();
+        final LongAdder hits = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder exactMatches = new LongAdder();
+        final LongAdder globMatches = new LongAdder();
+        final LongAdder memoHits = new LongAdder();
+        final LongAdder memoMisses = new LongAdder();
+
+        void record(long startNanos, String version) {
+            nanos.add(System.nanoTime() - startNanos);
+            lookups.increment();
+            if (version != null) {
+                hits.increment();
+            }
+        }
+
+        void recordError(long startNanos) {
+            nanos.add(System.nanoTime() - startNanos);
+            lookups.increment();
+            errors.increment();
+        }
+
+        void recordMatch(boolean glob) {
+            (glob ? globMatches : exactMatches).increment();
+        }
+
+        /**
+         * @param hit <code>true</code> when the glob match, or the lack of one, was remembered from an earlier lookup,
+         *            or, for a container, when a frozen container answered without polling its providers
+         */
+        void recordMemo(boolean hit) {
+            (hit ? memoHits : memoMisses).increment();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            long count = lookups.sum();
+            map.put("lookups", count);
+            map.put("hits", hits.sum());
+            map.put("misses", count - hits.sum() - errors.sum());
+            map.put("errors", errors.sum());
+            map.put("hitRatio", count == 0 ? 0.0 : (double) hits.sum() / count);
+            map.put("timeMs", nanos.sum() / 1e6);
+            map.put("exactMatches", exactMatches.sum());
+            map.put("globMatches", globMatches.sum());
+            long memoLookups = memoHits.sum() + memoMisses.sum();
+            map.put("memoHits", memoHits.sum());
+            map.put("memoMisses", memoMisses.sum());
+            map.put("memoHitRatio", memoLookups == 0 ? 0.0 : (double) memoHits.sum() / memoLookups);
+            return map;
+        }
+    }
+
+    public static final class ProjectStats {
+        private final String path;
+        private final ProviderStats lookups = new ProviderStats();
+        private final ConcurrentMap<String, ProviderStats> providers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> eachDependency = new ConcurrentHashMap<>();
+        private final List<Map<String, Object>> boms = new CopyOnWriteArrayList<>();
+
+        ProjectStats(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the counters for every lookup made through the project's container. Its memo counters tell the
+         * lookups a frozen container answered from its snapshot from those that polled the providers
+         */
+        ProviderStats getLookups() {
+            return lookups;
+        }
+
+        ProviderStats provider(String label) {
+            return providers.computeIfAbsent(label, k -> new ProviderStats());
+        }
+
+        /**
+         * @return the counter to increment for each <code>eachDependency</code> callback of the configuration
+         */
+        public LongAdder eachDependency(String configuration) {
+            return eachDependency.computeIfAbsent(configuration, k -> new LongAdder());
+        }
+
+        /**
+         * @param cached <code>true</code> when the BOM was found in the in-memory or persistent cache rather than built
+         */
+        void recordBom(String file, long nanos, boolean cached) {
+            Map<String, Object> bom = new LinkedHashMap<>();
+            bom.put("file", file);
+            bom.put("timeMs", nanos / 1e6);
+            bom.put("cached", cached);
+            boms.add(bom);
+        }
+
+        /**
+         * @return <code>true</code> when nothing has been recorded for the project
+         */
+        public boolean isEmpty() {
+            return lookups.lookups.sum() == 0 && providers.isEmpty() && eachDependency.isEmpty() && boms.isEmpty();
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("project", path);
+            map.put("lookups", lookups.toMap());
+            Map<String, Object> providerMaps = new TreeMap<>();
+            for (Map.Entry<String, ProviderStats> provider : providers.entrySet()) {
+                providerMaps.put(provider.getKey(), provider.getValue().toMap());
+            }
+            map.put("providers", providerMaps);
+            Map<String, Long> callbacks = new TreeMap<>();
+            for (Map.Entry<String, LongAdder> configuration : eachDependency.entrySet()) {
+                callbacks.put(configuration.getKey(), configuration.getValue().sum());
+            }
+            map.put("eachDependency", callbacks);
+            map.put("boms", new ArrayList<>(boms));
+            return map;
+        }
+
+        /**
+         * @return the same figures as {@link #toMap()}, laid out as plain text tables
+         */
+        public String toTable() {
+            List<String[]> providerRows = new ArrayList<>();
+            providerRows.add(new String[]{"provider", "lookups", "hits", "misses", "errors", "hit ratio", "time (ms)", "exact", "glob", "memo hit ratio"});
+            providerRows.add(providerRow("(container)", lookups.toMap()));
+            for (Map.Entry<String, ProviderStats> provider : new TreeMap<>(providers).entrySet()) {
+                providerRows.add(providerRow(provider.getKey(), provider.getValue().toMap()));
+            }
+
+            List<String[]> callbackRows = new ArrayList<>();
+            callbackRows.add(new String[]{"configuration", "eachDependency callbacks"});
+            for (Map.Entry<String, LongAdder> configuration : new TreeMap<>(eachDependency).entrySet()) {
+                callbackRows.add(new String[]{configuration.getKey(), String.valueOf(configuration.getValue().sum())});
+            }
+
+            List<String[]> bomRows = new ArrayList<>();
+            bomRows.add(new String[]{"BOM", "time (ms)", "cached"});
+            for (Map<String, Object> bom : boms) {
+                bomRows.add(new String[]{String.valueOf(bom.get("file")), String.format("%.3f", (Double) bom.get("timeMs")), String.valueOf(bom.get("cached"))});
+            }
+
+            StringBuilder table = new StringBuilder("Recommendation stats for project ").append(path).append("\n\n");
+            appendTable(table, providerRows);
+            table.append('\n');
+            appendTable(table, callbackRows);
+            table.append('\n');
+            appendTable(table, bomRows);
+            return table.toString();
+        }
+
+        private static String[] providerRow(String label, Map<String, Object> stats) {
+            return new String[]{label, String.valueOf(stats.get("lookups")), String.valueOf(stats.get("hits")),
+                    String.valueOf(stats.get("misses")), String.valueOf(stats.get("errors")),
+                    String.format("%.2f", (Double) stats.get("hitRatio")), String.format("%.3f", (Double) stats.get("timeMs")),
+                    String.valueOf(stats.get("exactMatches")), String.valueOf(stats.get("globMatches")),
+                    String.format("%.2f", (Double) stats.get("memoHitRatio"))};
+        }
+
+        private static void appendTable(StringBuilder table, List<String[]> rows) {
+            int[] widths = new int[rows.get(0).length];
+            for (String[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    widths[i] = Math.max(widths[i], row[i].length());
+                }
+            }
+            for (String[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    table.append(i == 0 ? padRight(row[i], widths[i]) : padLeft(row[i], widths[i] + 2));
+                }
+                table.append('\n');
+            }
+        }
+
+        private static String padRight(String value, int width) {
+            return value + String.join("", Collections.nCopies(width - value.length(), " "));
+        }
+
+        private static String padLeft(String value, int width) {
+            return String.join("", Collections.nCopies(width - value.length(), " ")) + value;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The recommendations of a container's providers, computed once and then independent of the providers, their sources
+ * and the project, so it can be kept by tasks and restored from the configuration cache without reading any source
+ * again.
+ * <p>
+ * It holds the version of every coordinate a provider lists, and the globs of providers that recommend versions for
+ * other coordinates through globs. Recommendations that a provider can only give when asked, such as those of a
+ * provider added with a closure, are only included for coordinates another provider lists, see {@link #isComplete()}.
+ */
+public final class RecommendedVersions implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final LinkedHashMap<String, String> versions;
+    private final ArrayList<LinkedHashMap<String, String>> globs;
+    private final LinkedHashSet<String> reasons;
+    private final boolean complete;
+    private transient volatile Index index;
+
+    /**
+     * @param versions the version of each listed coordinate, <code>null</code> when none of the providers has one
+     * @param globs    the versions of the globs of each provider, highest precedence first
+     * @param complete <code>false</code> if some provider's recommendations could not be captured
+     */
+    RecommendedVersions(Map<String, String> versions, List<Map<String, String>> globs, Set<String> reasons, boolean complete) {
+        this.versions = new LinkedHashMap<>(versions);
+        this.globs = new ArrayList<>();
+        for (Map<String, String> providerGlobs : globs) {
+            if (!providerGlobs.isEmpty()) {
+                this.globs.add(new LinkedHashMap<>(providerGlobs));
+            }
+        }
+        this.reasons = new LinkedHashSet<>(reasons);
+        this.complete = complete;
+    }
+
+    /**
+     * @return the recommended version, or <code>null</code>
+     */
+    public String getVersion(String group, String name) {
+        Index current = index();
+        String version = current.versions.get(group, name);
+        if (version != null || current.versions.containsKey(group, name) || current.globs.length == 0) {
+            return version;
+        }
+        String coordinate = group + ':' + name;
+        for (GlobIndex providerGlobs : current.globs) {
+            version = providerGlobs.versionOf(coordinate);
+            if (version != null) {
+                return version;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return <code>true</code> if a provider lists the coordinate, even when none of them has a version for it
+     */
+    boolean lists(String group, String name) {
+        return index().versions.containsKey(group, name);
+    }
+
+    /**
+     * @return the version of each coordinate the providers list, versions recommended through globs aren't included
+     */
+    public Map<String, String> getVersions() {
+        return Collections.unmodifiableMap(versions);
+    }
+
+    public Set<String> getReasons() {
+        return Collections.unmodifiableSet(reasons);
+    }
+
+    /**
+     * @return <code>false</code> when a provider could only be asked for each coordinate in turn, or failed to list its
+     * recommendations, so coordinates that no other provider lists may have been recommended a version by it
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * The lookup tables aren't serialized, they are built again on first use.
+     */
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            current = new Index(versions, globs);
+            index = current;
+        }
+        return current;
+    }
+
+    private static final class Index {
+        private final ModuleTable<String> versions;
+        private final GlobIndex[] globs;
+
+        Index(Map<String, String> versions, List<LinkedHashMap<String, String>> globs) {
+            this.versions = ModuleTable.of(versions, ':');
+            this.globs = new GlobIndex[globs.size()];
+            for (int i = 0; i < this.globs.length; i++) {
+                GlobIndex providerGlobs = new GlobIndex();
+                for (Map.Entry<String, String> glob : globs.get(i).entrySet()) {
+                    providerGlobs.add(glob.getKey(), glob.getValue());
+                }
+                this.globs[i] = providerGlobs.seal();
+            }
+        }
+    }
+}
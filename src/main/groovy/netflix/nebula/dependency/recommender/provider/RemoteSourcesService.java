@@ -0,0 +1,163 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import org.gradle.api.Project;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build-scoped access to the recommendation sources given by URL or module, shared by every project in the build.
+ * <p>
+ * A module source is resolved once per build for each notation, and parsed once for each artifact and type of
+ * provider, so that a source applied to every project of a build is only resolved and parsed by the first of them.
+ * <p>
+ * Sources served over HTTP are kept in a cache under the Gradle user home, see {@link HttpSourceCache}. It can be tuned
+ * with the <code>nebula.dependency-recommender.sourceCache.enabled</code>,
+ * <code>nebula.dependency-recommender.sourceCache.ttlSeconds</code> and
+ * <code>nebula.dependency-recommender.sourceCache.offlineFallback</code> system properties. Connections time out after
+ * <code>nebula.dependency-recommender.http.connectTimeoutMs</code> and
+ * <code>nebula.dependency-recommender.http.readTimeoutMs</code> milliseconds.
+ */
+public abstract class RemoteSourcesService implements BuildService<RemoteSourcesService.Params> {
+    public static final String NAME = "nebulaRemoteRecommendationSources";
+    private static final String CACHE_PROPERTY_PREFIX = "nebula.dependency-recommender.sourceCache.";
+    private static final String HTTP_PROPERTY_PREFIX = "nebula.dependency-recommender.http.";
+
+    private final HttpSourceCache cache;
+    private final ConcurrentMap<String, FutureTask<ResolvedModule>> modules = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FutureTask<Object>> parsed = new ConcurrentHashMap<>();
+
+    public interface Params extends BuildServiceParameters {
+        Property<File> getCacheDirectory();
+
+        Property<Boolean> getCacheEnabled();
+
+        Property<Long> getTtlSeconds();
+
+        Property<Boolean> getOfflineFallback();
+
+        Property<Boolean> getOffline();
+
+        Property<Integer> getConnectTimeoutMillis();
+
+        Property<Integer> getReadTimeoutMillis();
+    }
+
+    public RemoteSourcesService() {
+        Params params = getParameters();
+        cache = new HttpSourceCache(params.getCacheEnabled().get() ? params.getCacheDirectory().get() : null,
+                TimeUnit.SECONDS.toMillis(params.getTtlSeconds().get()),
+                params.getConnectTimeoutMillis().get(), params.getReadTimeoutMillis().get(),
+                params.getOfflineFallback().get(), params.getOffline().get());
+    }
+
+    public static Provider<RemoteSourcesService> register(Project project) {
+        final ProviderFactory providers = project.getProviders();
+        final File cacheDirectory = new File(project.getGradle().getGradleUserHomeDir(), "caches/nebula-dependency-recommender/sources");
+        final boolean offline = project.getGradle().getStartParameter().isOffline();
+        return project.getGradle().getSharedServices().registerIfAbsent(NAME, RemoteSourcesService.class, spec -> {
+            Params params = spec.getParameters();
+            params.getCacheDirectory().set(cacheDirectory);
+            params.getCacheEnabled().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "enabled").map(Boolean::valueOf).orElse(true));
+            params.getTtlSeconds().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "ttlSeconds").map(Long::valueOf).orElse(0L));
+            params.getOfflineFallback().set(providers.systemProperty(CACHE_PROPERTY_PREFIX + "offlineFallback").map(Boolean::valueOf).orElse(true));
+            params.getOffline().set(offline);
+            params.getConnectTimeoutMillis().set(providers.systemProperty(HTTP_PROPERTY_PREFIX + "connectTimeoutMs").map(Integer::valueOf).orElse(10000));
+            params.getReadTimeoutMillis().set(providers.systemProperty(HTTP_PROPERTY_PREFIX + "readTimeoutMs").map(Integer::valueOf).orElse(30000));
+        });
+    }
+
+    public InputStream open(URL url) throws IOException {
+        return cache.open(url);
+    }
+
+    /**
+     * @param notation the requested notation
+     * @param resolve  resolves the notation, on the calling project's thread
+     * @return the artifact resolved for the notation earlier in this build, or by <code>resolve</code>
+     */
+    public ResolvedModule resolveModule(String notation, Callable<ResolvedModule> resolve) throws Exception {
+        return once(modules, notation, resolve);
+    }
+
+    /**
+     * @param parser     identifies the parser, so different types of provider can read the same artifact
+     * @param artifactId the id of the resolved artifact, see {@link ResolvedModule#getId()}
+     * @return what the parser read from the artifact earlier in this build, or what <code>parse</code> reads
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T parse(String parser, String artifactId, Callable<T> parse) throws Exception {
+        return (T) once(parsed, parser + ' ' + artifactId, (Callable<Object>) parse);
+    }
+
+    /**
+     * Runs <code>compute</code> for the first caller asking for a key, later callers wait for its result. Failures
+     * aren't kept, so each project that needs the value reports them.
+     */
+    private static <T> T once(ConcurrentMap<String, FutureTask<T>> tasks, String key, Callable<T> compute) throws Exception {
+        FutureTask<T> task = tasks.get(key);
+        if (task == null) {
+            FutureTask<T> created = new FutureTask<>(compute);
+            task = tasks.putIfAbsent(key, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            tasks.remove(key, task);
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    public static final class ResolvedModule {
+        private final String id;
+        private final File file;
+
+        public ResolvedModule(String id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        /**
+         * @return the id of the selected artifact, which names the module version it was selected from
+         */
+        public String getId() {
+            return id;
+        }
+
+        public File getFile() {
+            return file;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.provider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads recommendation sources whole, memory-mapping large files.
+ */
+final class SourceBuffers {
+    /**
+     * Files at least this large are memory-mapped rather than copied through a stream.
+     */
+    static final long MAP_THRESHOLD = 1 << 20;
+
+    private SourceBuffers() {
+    }
+
+    static ByteBuffer read(InputStream in) throws IOException {
+        if (in instanceof FileInputStream) {
+            FileChannel channel = ((FileInputStream) in).getChannel();
+            if (channel.size() >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+}
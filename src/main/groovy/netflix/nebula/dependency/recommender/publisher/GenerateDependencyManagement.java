@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.publisher;
+
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.XmlProvider;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.UnresolvedDependencyResult;
+import org.gradle.api.file.RegularFile;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the <code>&lt;dependency&gt;</code> elements of a BOM's <code>&lt;dependencyManagement&gt;</code> section, so
+ * they are only written again when the managed dependencies change, and the POM task just copies them into the POM.
+ */
+@CacheableTask
+public abstract class GenerateDependencyManagement extends DefaultTask {
+    private static final String DEPENDENCY_INDENT = "\n      ";
+    private static final String ELEMENT_INDENT = "\n        ";
+
+    /**
+     * @return the managed dependencies as <code>group:name:version</code>, in the order they are written
+     */
+    @Input
+    public abstract ListProperty<String> getManagedDependencies();
+
+    @OutputFile
+    public abstract RegularFileProperty getDependenciesFile();
+
+    @TaskAction
+    public void generate() throws IOException, XMLStreamException {
+        File file = getDependenciesFile().get().getAsFile();
+        Files.createDirectories(file.getParentFile().toPath());
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+            for (String coordinate : getManagedDependencies().get()) {
+                String[] parts = coordinate.split(":", 3);
+                xml.writeCharacters(DEPENDENCY_INDENT);
+                xml.writeStartElement("dependency");
+                writeElement(xml, "groupId", parts[0]);
+                writeElement(xml, "artifactId", parts[1]);
+                writeElement(xml, "version", parts.length > 2 ? parts[2] : null);
+                xml.writeCharacters(DEPENDENCY_INDENT);
+                xml.writeEndElement();
+            }
+            xml.flush();
+            xml.close();
+        }
+    }
+
+    private static void writeElement(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        xml.writeCharacters(ELEMENT_INDENT);
+        xml.writeStartElement(name);
+        xml.writeCharacters(value);
+        xml.writeEndElement();
+    }
+
+    /**
+     * @return every module version the configurations resolve to, sorted by group, name and version, resolved when the
+     * task's inputs are read
+     */
+    public static Provider<List<String>> managedDependencies(ProviderFactory providers, Iterable<Configuration> configurations) {
+        Provider<Set<String>> modules = providers.provider(() -> new TreeSet<>(GenerateDependencyManagement::compareCoordinates));
+        for (Configuration configuration : configurations) {
+            modules = modules.zip(configuration.getIncoming().getResolutionResult().getRootComponent(), (collected, root) -> {
+                Set<String> all = new TreeSet<>(GenerateDependencyManagement::compareCoordinates);
+                all.addAll(collected);
+                collectModules(root, all);
+                return all;
+            });
+        }
+        return modules.map(ArrayList::new);
+    }
+
+    private static void collectModules(ResolvedComponentResult root, Set<String> modules) {
+        Set<ResolvedComponentResult> seen = new HashSet<>(Collections.singleton(root));
+        Deque<ResolvedComponentResult> queue = new ArrayDeque<>(seen);
+        while (!queue.isEmpty()) {
+            for (DependencyResult dependency : queue.poll().getDependencies()) {
+                if (dependency instanceof UnresolvedDependencyResult) {
+                    UnresolvedDependencyResult unresolved = (UnresolvedDependencyResult) dependency;
+                    throw new GradleException("Could not resolve " + unresolved.getAttempted().getDisplayName()
+                            + " for the BOM's managed dependencies", unresolved.getFailure());
+                }
+                ResolvedComponentResult selected = ((ResolvedDependencyResult) dependency).getSelected();
+                if (seen.add(selected)) {
+                    ModuleVersionIdentifier id = selected.getModuleVersion();
+                    if (id != null) {
+                        modules.add(id.getGroup() + ':' + id.getName() + ':' + id.getVersion());
+                    }
+                    queue.add(selected);
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders <code>group:name:version</code> coordinates by group, then name, then version.
+     */
+    static int compareCoordinates(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        for (int i = 0; i < length; i++) {
+            char x = a.charAt(i);
+            char y = b.charAt(i);
+            if (x != y) {
+                return x == ':' ? -1 : y == ':' ? 1 : x - y;
+            }
+        }
+        return a.length() - b.length();
+    }
+
+    /**
+     * Adds the generated dependencies to the POM as text, into the dependency management section the POM already has
+     * if any, so the POM isn't parsed into a tree for them.
+     */
+    static final class InsertDependencyManagement implements Action<XmlProvider> {
+        private final Provider<RegularFile> dependenciesFile;
+
+        InsertDependencyManagement(Provider<RegularFile> dependenciesFile) {
+            this.dependenciesFile = dependenciesFile;
+        }
+
+        @Override
+        public void execute(XmlProvider xml) {
+            String dependencies;
+            try {
+                dependencies = new String(Files.readAllBytes(dependenciesFile.get().getAsFile().toPath()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new GradleException("Could not read the BOM's managed dependencies", e);
+            }
+            insert(xml.asString(), dependencies);
+        }
+
+        static void insert(StringBuilder pom, String dependencies) {
+            int section = pom.indexOf("<dependencyManagement>");
+            if (section < 0) {
+                pom.insert(pom.lastIndexOf("</project>"), "  <dependencyManagement>\n    <dependencies>" + dependencies
+                        + "\n    </dependencies>\n  </dependencyManagement>\n");
+                return;
+            }
+            int sectionEnd = pom.indexOf("</dependencyManagement>", section);
+            int dependenciesEnd = pom.indexOf("</dependencies>", section);
+            if (dependenciesEnd >= 0 && dependenciesEnd < sectionEnd) {
+                pom.insert(pom.lastIndexOf("\n", dependenciesEnd), dependencies);
+            } else {
+                pom.insert(pom.lastIndexOf("\n", sectionEnd), "\n    <dependencies>" + dependencies + "\n    </dependencies>");
+            }
+        }
+    }
+}
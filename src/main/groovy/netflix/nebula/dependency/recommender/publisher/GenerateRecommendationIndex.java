@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.publisher;
+
+import netflix.nebula.dependency.recommender.provider.MavenBomRecommendationsService;
+import netflix.nebula.dependency.recommender.provider.RecommendationIndex;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the {@link RecommendationIndex} published next to a BOM, from the same managed dependencies as its
+ * dependency management section.
+ */
+@CacheableTask
+public abstract class GenerateRecommendationIndex extends DefaultTask {
+    /**
+     * @return the managed dependencies as <code>group:name:version</code>, later versions of a module winning
+     */
+    @Input
+    public abstract ListProperty<String> getManagedDependencies();
+
+    /**
+     * @return the id of the BOM, as <code>group:name:pom:version</code>
+     */
+    @Input
+    public abstract Property<String> getBomId();
+
+    /**
+     * @return the POM the index is published with, consumers only use the index next to this exact POM
+     */
+    @InputFile
+    @PathSensitive(PathSensitivity.NONE)
+    public abstract RegularFileProperty getPom();
+
+    @OutputFile
+    public abstract RegularFileProperty getIndexFile();
+
+    @TaskAction
+    public void generate() throws IOException {
+        Map<String, String> versions = new LinkedHashMap<>();
+        for (String coordinate : getManagedDependencies().get()) {
+            int version = coordinate.lastIndexOf(':');
+            versions.put(coordinate.substring(0, version), coordinate.substring(version + 1));
+        }
+        RecommendationIndex.write(getIndexFile().get().getAsFile(), getBomId().get(),
+                MavenBomRecommendationsService.hash(getPom().get().getAsFile()), versions);
+    }
+}
@@ -17,15 +17,24 @@ package netflix.nebula.dependency.recommender.publisher
 
 import groovy.transform.CompileDynamic
 import netflix.nebula.dependency.recommender.ModuleNotationParser
+import netflix.nebula.dependency.recommender.provider.RecommendationIndex
 import org.gradle.api.Project
+import org.gradle.api.Task
 import org.gradle.api.artifacts.Configuration
 import org.gradle.api.artifacts.ModuleVersionIdentifier
-import org.gradle.api.artifacts.ResolvedDependency
+import org.gradle.api.file.RegularFile
+import org.gradle.api.provider.Provider
+import org.gradle.api.publish.maven.MavenArtifact
 import org.gradle.api.publish.maven.MavenPublication
+import org.gradle.api.publish.maven.tasks.GenerateMavenPom
+import org.gradle.api.tasks.TaskProvider
 
 class MavenBomXmlGenerator {
     Project project
 
+    private final Map<String, TaskProvider<GenerateDependencyManagement>> generators = [:]
+    private final Set<String> indexed = []
+
     MavenBomXmlGenerator(Project project) {
         this.project = project
     }
@@ -41,7 +50,10 @@ class MavenBomXmlGenerator {
         else if(Iterable.class.isAssignableFrom(configurationsRet.class))
             configurations = configurationsRet as Iterable<Configuration>
 
-        generateDependencyManagementXml(pub, { configurations.collect { getManagedDependencies(it) }.flatten() })
+        Provider<List<String>> managed = GenerateDependencyManagement.managedDependencies(project.providers, configurations)
+        generateDependencyManagementXml(pub).configure { GenerateDependencyManagement task ->
+            task.managedDependencies.addAll(managed)
+        }
     }
 
     void withDependencies(Closure dependenciesClosure) {
@@ -55,47 +67,67 @@ class MavenBomXmlGenerator {
         else if(Iterable.class.isAssignableFrom(dependenciesRet.class))
             dependencies = dependenciesRet as Iterable<String>
 
-        generateDependencyManagementXml(pub, { dependencies.collect { ModuleNotationParser.parse(it) } })
+        List<String> managed = dependencies.collect { String notation ->
+            ModuleVersionIdentifier mvid = ModuleNotationParser.parse(notation)
+            "${mvid.group ?: ''}:${mvid.name}:${mvid.version ?: ''}".toString()
+        }
+        generateDependencyManagementXml(pub).configure { GenerateDependencyManagement task ->
+            task.managedDependencies.addAll(managed)
+        }
     }
 
-    @CompileDynamic
-    protected static generateDependencyManagementXml(MavenPublication pub, Closure<Iterable<ModuleVersionIdentifier>> deps) {
-        pub.pom.withXml {
-            Node root = it.asNode()
-            def dependencyManagement = root.getByName("dependencyManagement")
-
-            // when merging two or more sources of dependencies, we want to only create one dependencyManagement section
-            Node dependencies
-            if(dependencyManagement.isEmpty())
-                dependencies = root.appendNode("dependencyManagement").appendNode("dependencies")
-            else
-                dependencies = dependencyManagement[0].getByName("dependencies")[0]
-
-            deps.call().each { mvid ->
-                Node dep = dependencies.appendNode("dependency")
-                dep.appendNode("groupId").value = mvid.group
-                dep.appendNode("artifactId").value = mvid.name
-                dep.appendNode("version").value = mvid.version
+    /**
+     * Attaches a {@link RecommendationIndex} of the managed dependencies to the publication when the closure returns
+     * <code>true</code>, so consumers can read the BOM's recommendations without building its Maven model.
+     */
+    void withIndex(Closure enabledClosure) {
+        MavenPublication pub = getMavenPublication(enabledClosure)
+        if (!enabledClosure() || !indexed.add(pub.name)) {
+            return
+        }
+
+        TaskProvider<GenerateDependencyManagement> generator = generateDependencyManagementXml(pub)
+        String publication = "${pub.name.capitalize()}Publication"
+        String pomTask = "generatePomFileFor${publication}"
+        TaskProvider<GenerateRecommendationIndex> index = project.tasks.register("generateRecommendationIndexFor${publication}", GenerateRecommendationIndex) { GenerateRecommendationIndex task ->
+            task.description = "Generates the recommendation index of publication '${pub.name}'."
+            task.managedDependencies.set(generator.flatMap { it.managedDependencies })
+            task.bomId.set(project.provider { "${pub.groupId}:${pub.artifactId}:pom:${pub.version}".toString() })
+            task.pom.fileProvider(project.tasks.named(pomTask, GenerateMavenPom).map { it.destination })
+            task.indexFile.set(project.layout.buildDirectory.file("publications/${pub.name}/recommendations.${RecommendationIndex.EXTENSION}"))
+        }
+        pub.artifact(index.flatMap { it.indexFile }) { MavenArtifact artifact ->
+            artifact.classifier = RecommendationIndex.CLASSIFIER
+            artifact.extension = RecommendationIndex.EXTENSION
+            artifact.builtBy(index)
+        }
+    }
+
+    /**
+     * The dependency management section of a publication is written by one task, which collects the dependencies of
+     * every call for the publication in order, so two or more sources of dependencies share one section.
+     */
+    protected TaskProvider<GenerateDependencyManagement> generateDependencyManagementXml(MavenPublication pub) {
+        TaskProvider<GenerateDependencyManagement> generator = generators[pub.name]
+        if (generator == null) {
+            String publication = "${pub.name.capitalize()}Publication"
+            generator = project.tasks.register("generateDependencyManagementFor${publication}", GenerateDependencyManagement) { GenerateDependencyManagement task ->
+                task.description = "Generates the dependency management section of the POM of publication '${pub.name}'."
+                task.dependenciesFile.set(project.layout.buildDirectory.file("publications/${pub.name}/dependency-management.xml"))
+            }
+            Provider<RegularFile> dependenciesFile = generator.flatMap { it.dependenciesFile }
+            String pomTask = "generatePomFileFor${publication}"
+            project.tasks.matching { Task task -> task.name == pomTask }.configureEach { Task task ->
+                task.inputs.file(dependenciesFile).withPropertyName('dependencyManagement')
             }
+            pub.pom.withXml(new GenerateDependencyManagement.InsertDependencyManagement(dependenciesFile))
+            generators[pub.name] = generator
         }
+        generator
     }
 
     @CompileDynamic
     private MavenPublication getMavenPublication(Closure configurationsClosure) {
         return configurationsClosure.delegate.delegate
     }
-
-    protected static Set<ModuleVersionIdentifier> getManagedDependencies(Configuration configuration) {
-        getManagedDependenciesRecursive(configuration.resolvedConfiguration.firstLevelModuleDependencies,
-                new HashSet<ModuleVersionIdentifier>())
-    }
-
-    protected static Set<ModuleVersionIdentifier> getManagedDependenciesRecursive(Set<ResolvedDependency> deps, Set<ModuleVersionIdentifier> all) {
-        deps.each { dep ->
-            if (all.add(dep.module.id)) {
-                getManagedDependenciesRecursive(dep.children, all)
-            }
-        }
-        return all
-    }
 }
@@ -58,4 +58,45 @@ class DependencyRecommendationsPluginConfigurationCacheSpec extends IntegrationT
         runTasks('--configuration-cache', 'dependencies')
     }
 
+    def 'tasks use recommendations restored from the configuration cache'() {
+        def recommendations = new File(projectDir, 'recommendations.properties')
+        recommendations.text = 'test.nebula:foo = 1.0.0'
+
+        buildFile << """\
+            plugins {
+                id 'com.netflix.nebula.dependency-recommender'
+                id 'java'
+            }
+
+            dependencyRecommendations {
+                propertiesFile file: file('recommendations.properties')
+                map recommendations: ['test.other:*': '2.0.0']
+            }
+
+            tasks.register('printRecommendations') {
+                def versions = dependencyRecommendations.recommendedVersions
+                doLast {
+                    println "foo=" + versions.get().getVersion('test.nebula', 'foo')
+                    println "bar=" + versions.get().getVersion('test.other', 'bar')
+                }
+            }
+            """.stripIndent()
+
+        when:
+        def stored = runTasks('--configuration-cache', 'printRecommendations')
+        def reused = runTasks('--configuration-cache', 'printRecommendations')
+
+        then:
+        stored.output.contains('Configuration cache entry stored')
+        reused.output.contains('Configuration cache entry reused')
+        [stored, reused].every { it.output.contains('foo=1.0.0') && it.output.contains('bar=2.0.0') }
+
+        when:
+        recommendations.text = 'test.nebula:foo = 1.1.0'
+        def changed = runTasks('--configuration-cache', 'printRecommendations')
+
+        then:
+        changed.output.contains('Configuration cache entry stored')
+        changed.output.contains('foo=1.1.0')
+    }
 }
@@ -85,4 +85,43 @@ class DependencyRecommendationsPluginMultiprojectCoreBomSupportSpec extends Inte
         then:
         results.output.contains("+--- test.nebula:foo -> 1.0.0")
     }
+
+    def 'classpath configurations of a subproject share a single copy of the recommendation configuration'() {
+        def a = addSubproject('a', '''\
+                dependencies {
+                    implementation 'test.nebula:foo'
+                }
+            '''.stripIndent())
+        writeHelloWorld('a', a)
+        buildFile << """\
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+            dependencyRecommendations {
+                mavenBom module: 'test.nebula.bom:testbom:latest.release'
+            }
+
+            allprojects {
+                apply plugin: 'java'
+
+                repositories {
+                    maven { url = '${repo.root.absoluteFile.toURI()}' }
+                    ${generator.mavenRepositoryBlock}
+                }
+            }
+
+            gradle.projectsEvaluated {
+                def configurations = project(':a').configurations
+                println "copies: " + configurations.names.findAll { it.startsWith('nebulaRecommenderBomCopy') }
+                println "extended: " + configurations.findAll { it.name.endsWith('Classpath') }
+                        .collect { it.extendsFrom*.name.findAll { it.startsWith('nebulaRecommenderBom') } }.unique()
+            }
+            """.stripIndent()
+
+        when:
+        def results = runTasks(':a:dependencies', '--configuration', 'compileClasspath')
+
+        then:
+        results.output.contains('copies: [nebulaRecommenderBomCopy]')
+        results.output.contains('extended: [[nebulaRecommenderBomCopy]]')
+        results.output.contains("+--- test.nebula:foo -> 1.0.0")
+    }
 }
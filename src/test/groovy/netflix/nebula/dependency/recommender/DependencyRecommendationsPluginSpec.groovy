@@ -15,6 +15,7 @@
  */
 package netflix.nebula.dependency.recommender
 
+import groovy.json.JsonSlurper
 import nebula.test.IntegrationSpec
 import nebula.test.dependencies.DependencyGraphBuilder
 import nebula.test.dependencies.GradleDependencyGenerator
@@ -435,6 +436,112 @@ class DependencyRecommendationsPluginSpec extends IntegrationSpec  {
         }
     }
 
+    def 'the managed dependencies of a BOM are sorted and only generated again when they change'() {
+        when:
+        buildFile << '''
+            apply plugin: 'maven-publish'
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+
+            group = 'netflix'
+            version = '1'
+
+            configurations { implementation }
+
+            repositories { mavenCentral() }
+
+            dependencies {
+                implementation 'commons-configuration:commons-configuration:1.6'
+            }
+
+            publishing {
+                publications {
+                    parent(MavenPublication) {
+                        nebulaDependencyManagement.fromConfigurations { configurations.implementation }
+                        nebulaDependencyManagement.withDependencies { 'manual:dep:1' }
+                        artifactId = 'module-parent'
+                    }
+                }
+            }
+        '''
+
+        def first = runTasksSuccessfully('generatePomFileForParentPublication')
+        def pomText = new File(projectDir, 'build/publications/parent/pom-default.xml').text
+        def second = runTasksSuccessfully('generatePomFileForParentPublication')
+
+        then:
+        first.wasExecuted(':generateDependencyManagementForParentPublication')
+        second.wasUpToDate(':generateDependencyManagementForParentPublication')
+        pomText.findAll(~/<artifactId>(.*)<\/artifactId>/) { match, artifactId -> artifactId } == ['module-parent', 'commons-beanutils', 'commons-beanutils-core',
+                'commons-collections', 'commons-configuration', 'commons-digester', 'commons-lang', 'commons-logging', 'dep']
+
+        when:
+        buildFile << '''
+            dependencies {
+                implementation 'commons-io:commons-io:2.4'
+            }
+        '''
+        def changed = runTasksSuccessfully('generatePomFileForParentPublication')
+
+        then:
+        changed.wasExecuted(':generateDependencyManagementForParentPublication')
+        new File(projectDir, 'build/publications/parent/pom-default.xml').text.contains('<artifactId>commons-io</artifactId>')
+    }
+
+    def 'BOMs published with a recommendation index are read from the index'() {
+        setup:
+        def repo = new File(projectDir, 'build/bomrepo')
+        buildFile.text = """
+            apply plugin: 'maven-publish'
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+
+            publishing {
+                publications {
+                    parent(MavenPublication) {
+                        nebulaDependencyManagement.withDependencies { 'commons-lang:commons-lang:2.4' }
+                        nebulaDependencyManagement.withIndex { true }
+                        groupId = 'netflix'
+                        artifactId = 'module-parent'
+                        version = '1'
+                    }
+                }
+                repositories {
+                    maven { url = '${repo.toURI()}' }
+                }
+            }
+        """
+        runTasksSuccessfully('publish')
+
+        buildFile.text = """
+            apply plugin: 'java'
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+
+            repositories {
+                maven { url = '${repo.toURI()}' }
+                mavenCentral()
+            }
+
+            dependencyRecommendations {
+                mavenBom module: 'netflix:module-parent:1'
+            }
+
+            dependencies {
+                implementation 'commons-lang:commons-lang'
+            }
+        """
+
+        when:
+        def indexed = runTasksSuccessfully('dependencies', '--configuration', 'compileClasspath', 'recommendationStats',
+                '-Dnebula.dependency-recommender.bomIndex.enabled=true')
+        def built = runTasksSuccessfully('dependencies', '--configuration', 'compileClasspath', 'recommendationStats')
+
+        then:
+        new File(repo, 'netflix/module-parent/1/module-parent-1-recommendations.idx').isFile()
+        indexed.standardOutput.contains('commons-lang:commons-lang -> 2.4')
+        !indexed.standardOutput.contains('module-parent-1.pom')
+        built.standardOutput.contains('commons-lang:commons-lang -> 2.4')
+        built.standardOutput.contains('module-parent-1.pom')
+    }
+
     @Ignore
     @Issue('#49')
     def 'substituted dependencies do not have recommendations applied'() {
@@ -519,4 +626,133 @@ class DependencyRecommendationsPluginSpec extends IntegrationSpec  {
         then:
         noExceptionThrown()
     }
+
+    def 'a recommendation source that cannot be read is reported'() {
+        given:
+        def graph = new DependencyGraphBuilder()
+                .addModule('test.nebula:foo:1.0.0')
+                .build()
+        def generator = new GradleDependencyGenerator(graph, "${projectDir}/repo")
+        generator.generateTestMavenRepo()
+
+        buildFile << """\
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+            apply plugin: 'java'
+
+            repositories {
+                ${generator.mavenRepositoryBlock}
+            }
+
+            dependencyRecommendations {
+                propertiesFile name: 'props', file: file('missing.properties')
+            }
+
+            dependencies {
+                implementation 'test.nebula:foo'
+            }
+
+            tasks.register('resolve', Copy) {
+                from configurations.compileClasspath
+                into layout.buildDirectory.dir('resolved')
+            }
+            """.stripIndent()
+
+        when:
+        def result = runTasksWithFailure('resolve')
+
+        then:
+        def output = result.standardOutput + result.standardError
+        output.contains('Exception while polling provider props for version')
+        output.contains('missing.properties')
+    }
+
+    def 'recommendations whose aliases form a cycle fail the build'() {
+        given:
+        def graph = new DependencyGraphBuilder()
+                .addModule('test.nebula:foo:1.0.0')
+                .addModule('test.nebula:bar:1.0.0')
+                .build()
+        def generator = new GradleDependencyGenerator(graph, "${projectDir}/repo")
+        generator.generateTestMavenRepo()
+
+        createFile('recommendations.properties') << '''\
+            FOO_VERSION = $test.nebula:foo
+            test.nebula:foo = $FOO_VERSION
+            test.nebula:bar = 1.0.0
+            '''.stripIndent()
+
+        buildFile << """\
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+            apply plugin: 'java'
+
+            repositories {
+                ${generator.mavenRepositoryBlock}
+            }
+
+            dependencyRecommendations {
+                propertiesFile file: file('recommendations.properties')
+            }
+
+            dependencies {
+                implementation 'test.nebula:foo'
+                implementation 'test.nebula:bar'
+            }
+
+            tasks.register('resolve', Copy) {
+                from configurations.compileClasspath
+                into layout.buildDirectory.dir('resolved')
+            }
+            """.stripIndent()
+
+        when:
+        def result = runTasksWithFailure('resolve')
+
+        then:
+        def output = result.standardOutput + result.standardError
+        output.contains('Recommended versions refer to each other in a cycle: FOO_VERSION -> test.nebula:foo -> FOO_VERSION')
+        output.contains('Could not find test.nebula:foo:.')
+        !output.contains('Could not find test.nebula:bar')
+    }
+
+    def 'recommendation stats are collected when the stats task is pulled in by another task'() {
+        given:
+        def graph = new DependencyGraphBuilder()
+                .addModule('test.nebula:foo:1.0.0')
+                .build()
+        def generator = new GradleDependencyGenerator(graph, "${projectDir}/repo")
+        generator.generateTestMavenRepo()
+
+        buildFile << """\
+            apply plugin: 'com.netflix.nebula.dependency-recommender'
+            apply plugin: 'java'
+
+            repositories {
+                ${generator.mavenRepositoryBlock}
+            }
+
+            dependencyRecommendations {
+                map name: 'versions', recommendations: ['test.nebula:foo': '1.0.0']
+            }
+
+            dependencies {
+                implementation 'test.nebula:foo'
+            }
+
+            tasks.register('resolve') {
+                def classpath = configurations.compileClasspath
+                finalizedBy 'recommendationStats'
+                doLast {
+                    classpath.files
+                }
+            }
+            """.stripIndent()
+
+        when:
+        def result = runTasksSuccessfully('--no-configuration-cache', 'resolve')
+
+        then:
+        !(result.standardOutput + result.standardError).contains('Nothing was recorded')
+        def stats = new JsonSlurper().parse(new File(projectDir, 'build/reports/recommendation-stats/stats.json'))
+        stats.providers.versions.hits == 1
+    }
 }
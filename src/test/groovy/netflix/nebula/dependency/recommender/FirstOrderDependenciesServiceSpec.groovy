@@ -0,0 +1,112 @@
+package netflix.nebula.dependency.recommender
+
+import netflix.nebula.dependency.recommender.provider.ModuleTable
+import org.gradle.api.Project
+import org.gradle.api.artifacts.ModuleVersionSelector
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+class FirstOrderDependenciesServiceSpec extends Specification {
+    Project root
+    Project a
+    Project b
+
+    def setup() {
+        root = ProjectBuilder.builder().build()
+        a = ProjectBuilder.builder().withName('a').withParent(root).build()
+        b = ProjectBuilder.builder().withName('b').withParent(root).build()
+        [a, b].each { it.apply plugin: 'java' }
+    }
+
+    def 'versioned dependencies of project dependencies are inspected, and inspected again once they change'() {
+        setup:
+        def service = FirstOrderDependenciesService.register(root).get()
+        [a, b].each { it.configurations.all { service.observe(it) } }
+        a.dependencies {
+            implementation 'commons-logging:commons-logging:1.1'
+        }
+        b.dependencies {
+            implementation a
+            implementation b
+        }
+
+        when:
+        def strategy = new RecommendationsOverrideTransitivesStrategy()
+        service.inspect(b.configurations.compileClasspath, strategy)
+
+        then:
+        !strategy.canRecommendVersion(selector('commons-logging', 'commons-logging', '1.0'))
+        strategy.canRecommendVersion(selector('commons-lang', 'commons-lang', '2.6'))
+
+        when:
+        a.dependencies {
+            implementation 'commons-lang:commons-lang:2.6'
+        }
+        strategy = new RecommendationsOverrideTransitivesStrategy()
+        service.inspect(b.configurations.compileClasspath, strategy)
+
+        then:
+        !strategy.canRecommendVersion(selector('commons-logging', 'commons-logging', '1.0'))
+        !strategy.canRecommendVersion(selector('commons-lang', 'commons-lang', '2.5'))
+    }
+
+    def 'dependencies of configurations that are not observed are inspected again each time'() {
+        setup:
+        def service = FirstOrderDependenciesService.register(root).get()
+        b.dependencies {
+            implementation a
+        }
+
+        when:
+        def strategy = new RecommendationsOverrideTransitivesStrategy()
+        service.inspect(b.configurations.compileClasspath, strategy)
+
+        then:
+        strategy.canRecommendVersion(selector('commons-lang', 'commons-lang', '2.6'))
+
+        when:
+        a.dependencies {
+            implementation 'commons-lang:commons-lang:2.6'
+        }
+        strategy = new RecommendationsOverrideTransitivesStrategy()
+        service.inspect(b.configurations.compileClasspath, strategy)
+
+        then:
+        !strategy.canRecommendVersion(selector('commons-lang', 'commons-lang', '2.5'))
+    }
+
+    def 'the versioned dependencies of an observed configuration are collected once for every resolution'() {
+        setup:
+        def service = FirstOrderDependenciesService.register(root).get()
+        [a, b].each { it.configurations.all { service.observe(it) } }
+        a.dependencies {
+            implementation 'commons-logging:commons-logging:1.1'
+        }
+        b.dependencies {
+            implementation a
+        }
+        def inspected = []
+        def strategy = new RecommendationsConflictResolvedStrategy() {
+            @Override
+            void inspectVersionedDependencies(ModuleTable<Boolean> versioned) {
+                inspected << versioned
+            }
+        }
+
+        when:
+        2.times { service.inspect(b.configurations.compileClasspath, strategy) }
+
+        then:
+        inspected.size() == 2
+        inspected[0].is(inspected[1])
+        inspected[0].containsKey('commons-logging', 'commons-logging')
+    }
+
+    private ModuleVersionSelector selector(String group, String name, String version) {
+        Stub(ModuleVersionSelector) {
+            getGroup() >> group
+            getName() >> name
+            getVersion() >> version
+        }
+    }
+}
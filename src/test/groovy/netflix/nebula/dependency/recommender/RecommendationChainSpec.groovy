@@ -0,0 +1,70 @@
+package netflix.nebula.dependency.recommender
+
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+class RecommendationChainSpec extends Specification {
+    Project root
+    Project middle
+    Project leaf
+
+    def setup() {
+        root = ProjectBuilder.builder().build()
+        middle = ProjectBuilder.builder().withName('middle').withParent(root).build()
+        leaf = ProjectBuilder.builder().withName('leaf').withParent(middle).build()
+        [root, leaf].each { it.apply plugin: DependencyRecommendationsPlugin }
+    }
+
+    def 'the nearest project with a recommendation wins and ancestors without the plugin are skipped'() {
+        setup:
+        root.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.1', 'com.google.guava:guava': '18.0']
+        }
+        leaf.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.2']
+        }
+
+        when:
+        def chain = RecommendationChain.of(leaf)
+
+        then:
+        chain.getRecommendedVersion('commons-logging', 'commons-logging') == '1.2'
+        chain.getRecommendedVersion('com.google.guava', 'guava') == '18.0'
+        chain.getRecommendedVersion('doesnotexist', 'doesnotexist') == null
+    }
+
+    def 'misses are remembered until a provider is added to a frozen container'() {
+        setup:
+        def chain = RecommendationChain.of(leaf)
+        root.dependencyRecommendations.freeze()
+        leaf.dependencyRecommendations.freeze()
+
+        expect:
+        chain.getRecommendedVersion('commons-logging', 'commons-logging') == null
+
+        when:
+        root.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+
+        then:
+        chain.getRecommendedVersion('commons-logging', 'commons-logging') == '1.1'
+    }
+
+    def 'reasons come from the nearest project that has any and are joined again when they change'() {
+        setup:
+        def chain = RecommendationChain.of(leaf)
+        root.dependencyRecommendations.reasons.add('first')
+
+        expect:
+        chain.joinedReasons == 'first'
+
+        when:
+        leaf.dependencyRecommendations.reasons.add('second')
+
+        then:
+        chain.reasons == ['second'] as Set
+        chain.joinedReasons == 'second'
+    }
+}
@@ -0,0 +1,49 @@
+package netflix.nebula.dependency.recommender
+
+import org.gradle.api.artifacts.ModuleVersionSelector
+import org.gradle.api.artifacts.ResolutionStrategy
+import spock.lang.Specification
+
+class RecommendationDecisionsSpec extends Specification {
+    def 'each module is only looked up once per resolution'() {
+        setup:
+        def decisions = new RecommendationDecisions(Mock(ResolutionStrategy))
+        def lookups = 0
+        def recommend = { ModuleVersionSelector module ->
+            lookups++
+            new RecommendationDecisions.Recommendation('1.1', "because ${module.name}".toString())
+        }
+
+        when:
+        def first = decisions.getRecommendation(selector('commons-logging', 'commons-logging'), recommend)
+        def second = decisions.getRecommendation(selector('commons-logging', 'commons-logging'), recommend)
+        decisions.getRecommendation(selector('commons-lang', 'commons-lang'), recommend)
+
+        then:
+        first.is(second)
+        first.because == 'because commons-logging'
+        lookups == 2
+    }
+
+    def 'forced modules are read once on the first edge'() {
+        setup:
+        def strategy = Mock(ResolutionStrategy)
+        def decisions = new RecommendationDecisions(strategy)
+
+        when:
+        def forced = decisions.getForcedReason(selector('commons-logging', 'commons-logging'))
+        def notForced = decisions.getForcedReason(selector('commons-lang', 'commons-lang'))
+
+        then:
+        1 * strategy.getForcedModules() >> ([selector('commons-logging', 'commons-logging')] as Set)
+        forced == 'Would have recommended a version for commons-logging:commons-logging, but a force is in place'
+        notForced == null
+    }
+
+    private ModuleVersionSelector selector(String group, String name) {
+        Stub(ModuleVersionSelector) {
+            getGroup() >> group
+            getName() >> name
+        }
+    }
+}
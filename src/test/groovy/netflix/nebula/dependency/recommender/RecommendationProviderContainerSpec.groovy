@@ -1,5 +1,6 @@
 package netflix.nebula.dependency.recommender
 
+import netflix.nebula.dependency.recommender.provider.RecommendedVersions
 import org.gradle.api.Project
 import org.gradle.testfixtures.ProjectBuilder
 import org.junit.Rule
@@ -279,4 +280,142 @@ class RecommendationProviderContainerSpec extends Specification {
         commonsLangCompile.moduleVersion == '1.1'
         commonsLangExcluded.moduleVersion == '1.1.1'
     }
+
+    def 'a frozen container gives the same recommendations as polling its providers'() {
+        setup:
+        def recommendations = projectDir.newFile('recommendations.properties')
+        recommendations.text = 'com.google.guava:guava = 17.0\ncom.sun.jersey:jersey-core = 1.18'
+
+        project.dependencyRecommendations {
+            propertiesFile file: recommendations
+            map recommendations: ['com.google.guava:guava': '18.0', 'com.sun.jersey:*': '1.19']
+            map recommendations: ['commons-logging:commons-logging': '1.1']
+            addProvider { org, name -> name == 'commons-lang' ? '2.6' : null }
+        }
+        def coordinates = [['com.google.guava', 'guava'], ['com.sun.jersey', 'jersey-core'], ['com.sun.jersey', 'jersey-client'],
+                           ['commons-logging', 'commons-logging'], ['commons-lang', 'commons-lang'], ['doesnotexist', 'doesnotexist']]
+        def container = project.dependencyRecommendations
+        def polled = coordinates.collect { container.getRecommendedVersion(it[0], it[1]) }
+
+        when:
+        container.freeze()
+
+        then:
+        coordinates.collect { container.getRecommendedVersion(it[0], it[1]) } == polled
+        polled == ['18.0', '1.19', '1.19', '1.1', '2.6', null]
+    }
+
+    def 'a frozen container polls its providers once for each listed coordinate'() {
+        setup:
+        def polled = []
+        project.dependencyRecommendations {
+            map recommendations: ['com.google.guava:guava': '18.0', 'commons-logging:commons-logging': '1.1']
+            addProvider { org, name -> polled << "$org:$name".toString(); null }
+        }
+        def container = project.dependencyRecommendations
+        container.freeze()
+
+        when:
+        def versions = (1..2).collect { container.getRecommendedVersion('com.google.guava', 'guava') }
+
+        then:
+        versions == ['18.0', '18.0']
+        polled == ['com.google.guava:guava', 'commons-logging:commons-logging']
+
+        when:
+        (1..2).each { container.getRecommendedVersion('commons-lang', 'commons-lang') }
+
+        then: 'coordinates no provider lists are only asked of the providers that could recommend them'
+        polled == ['com.google.guava:guava', 'commons-logging:commons-logging', 'commons-lang:commons-lang', 'commons-lang:commons-lang']
+    }
+
+    def 'providers added after freezing are taken into account'() {
+        setup:
+        project.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+        def container = project.dependencyRecommendations
+        container.freeze()
+
+        expect:
+        container.getRecommendedVersion('commons-logging', 'commons-logging') == '1.1'
+
+        when:
+        project.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.2']
+        }
+
+        then:
+        container.getRecommendedVersion('commons-logging', 'commons-logging') == '1.2'
+    }
+
+    def 'providers reconfigured after the project is evaluated are taken into account until a configuration resolves'() {
+        setup:
+        def versions = project.dependencyRecommendations.map(recommendations: ['commons-logging:commons-logging': '1.1'])
+        project.afterEvaluate {
+            versions.recommendations = ['commons-logging:commons-logging': '1.2']
+        }
+        def container = project.dependencyRecommendations
+
+        when:
+        project.evaluate()
+
+        then:
+        !container.frozen
+        container.getRecommendedVersion('commons-logging', 'commons-logging') == '1.2'
+
+        when:
+        project.configurations.compileClasspath.resolve()
+
+        then:
+        container.frozen
+        container.getRecommendedVersion('commons-logging', 'commons-logging') == '1.2'
+    }
+
+    def 'recommended versions are captured in a snapshot that does not depend on the providers'() {
+        setup:
+        def recommendations = projectDir.newFile('recommendations.properties')
+        recommendations.text = 'com.google.guava:guava = 17.0\ncom.sun.jersey:jersey-core = 1.18'
+
+        project.dependencyRecommendations {
+            propertiesFile file: recommendations
+            map recommendations: ['com.google.guava:guava': '18.0', 'commons-logging:commons-logging': '1.0', 'com.sun.jersey:*': '$commons-logging:commons-logging']
+            map recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+        def coordinates = [['com.google.guava', 'guava'], ['com.sun.jersey', 'jersey-core'], ['com.sun.jersey', 'jersey-client'],
+                           ['commons-logging', 'commons-logging'], ['doesnotexist', 'doesnotexist']]
+        def container = project.dependencyRecommendations
+        container.freeze()
+        def polled = coordinates.collect { container.getRecommendedVersion(it[0], it[1]) }
+
+        when:
+        def bytes = new ByteArrayOutputStream()
+        new ObjectOutputStream(bytes).withCloseable { it.writeObject(container.recommendedVersions.get()) }
+        recommendations.delete()
+        RecommendedVersions restored = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject()
+
+        then:
+        coordinates.collect { restored.getVersion(it[0], it[1]) } == polled
+        polled == ['18.0', '1.0', '1.0', '1.1', null]
+        restored.complete
+        restored.reasons == container.reasons
+    }
+
+    def 'recommended versions are incomplete when a provider can only be polled'() {
+        setup:
+        project.dependencyRecommendations {
+            map recommendations: ['commons-logging:commons-logging': '1.1']
+            addProvider { org, name -> name == 'commons-lang' ? '2.6' : null }
+        }
+        def container = project.dependencyRecommendations
+        container.freeze()
+
+        when:
+        def versions = container.recommendedVersions.get()
+
+        then:
+        !versions.complete
+        versions.getVersion('commons-logging', 'commons-logging') == '1.1'
+        versions.getVersion('commons-lang', 'commons-lang') == null
+    }
 }
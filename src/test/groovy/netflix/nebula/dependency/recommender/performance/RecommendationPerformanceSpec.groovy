@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.performance
+
+import org.gradle.testkit.runner.GradleRunner
+import spock.lang.Requires
+import spock.lang.Shared
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Measures configuration time, configuration count, resolution time, resolved components and peak heap of synthetic
+ * builds and compares the medians with the stored baselines. The configuration and component counts don't depend on
+ * the machine, so they fail the build when they regress; times and heap are only reported, unless a timing threshold
+ * is given for a run on the machine the baselines were recorded on. Only run by the <code>performanceTest</code> task,
+ * which sets:
+ * <ul>
+ *     <li><code>performance.baselines</code>, the baselines file</li>
+ *     <li><code>performance.workDir</code>, where the builds are generated</li>
+ *     <li><code>performance.projectCounts</code>, comma separated, defaults to 100, 500 and 2,000</li>
+ *     <li><code>performance.iterations</code>, measured runs after one warm up run, defaults to 3</li>
+ *     <li><code>performance.threshold</code>, the allowed regression of the counts over the baseline, defaults to 0</li>
+ *     <li><code>performance.timingThreshold</code>, the allowed regression of times and heap over the baseline, not
+ *     checked unless set</li>
+ *     <li><code>performance.updateBaselines</code>, to store the measured medians as the new baselines</li>
+ * </ul>
+ */
+@Requires({ System.getProperty('performance.baselines') })
+class RecommendationPerformanceSpec extends Specification {
+    static final List<String> COUNTS = ['configurationCount', 'resolvedComponents']
+    static final List<String> TIMINGS = ['configurationMs', 'resolutionMs', 'peakHeapMb']
+
+    @Shared File baselinesFile = new File(System.getProperty('performance.baselines', 'baselines.properties'))
+    @Shared File workDir = new File(System.getProperty('performance.workDir', 'build/performance'))
+    @Shared int iterations = Integer.getInteger('performance.iterations', 3)
+    @Shared double threshold = Double.parseDouble(System.getProperty('performance.threshold', '0'))
+    @Shared Double timingThreshold = System.getProperty('performance.timingThreshold')?.with { Double.parseDouble(it) }
+    @Shared boolean updateBaselines = Boolean.getBoolean('performance.updateBaselines')
+    @Shared Properties baselines = new Properties()
+    @Shared Properties measured = new Properties()
+
+    def setupSpec() {
+        if (baselinesFile.exists()) {
+            baselinesFile.withInputStream { baselines.load(it) }
+        }
+    }
+
+    def cleanupSpec() {
+        File report = new File(workDir, 'results.properties')
+        report.parentFile.mkdirs()
+        report.withOutputStream { measured.store(it, 'Medians of the last performanceTest run') }
+        if (updateBaselines) {
+            baselines.putAll(measured)
+            baselinesFile.withOutputStream { baselines.store(it, 'Recorded with ./gradlew performanceTest -Pperformance.updateBaselines=true') }
+        }
+    }
+
+    @Unroll
+    def '#mode build of #projects projects stays within the thresholds of its baseline'() {
+        setup:
+        def build = new SyntheticBuild(new File(workDir, "${mode}-${projects}"), projects, mode == 'coreBomSupport')
+        build.dir.deleteDir()
+        build.write()
+
+        when:
+        run(build)
+        List<Properties> runs = (1..iterations).collect { run(build) }
+        List<String> regressions = compareWithBaselines("${mode}.${projects}", runs)
+
+        then:
+        regressions.empty
+
+        where:
+        [projects, mode] << [projectCounts(), ['classic', 'coreBomSupport']].combinations()
+    }
+
+    /**
+     * Records and reports the median of each metric, and lists the counts over their baseline by more than the
+     * threshold or without a baseline, so a build that was never recorded can't pass unchecked. Times and heap are
+     * listed only when a timing threshold is given.
+     */
+    private List<String> compareWithBaselines(String build, List<Properties> runs) {
+        List<String> regressions = []
+        for (String metric : COUNTS + TIMINGS) {
+            String key = "${build}.${metric}"
+            long median = median(runs.collect { it.getProperty(metric) as long })
+            measured.setProperty(key, median as String)
+
+            String baseline = baselines.getProperty(key)
+            println "${key}: ${median}, baseline ${baseline ?: 'none'}"
+            Double allowed = metric in COUNTS ? threshold : timingThreshold
+            if (updateBaselines || allowed == null) {
+                continue
+            }
+            if (baseline == null) {
+                regressions << "${metric} ${median} has no baseline ${key}, record it with -Pperformance.updateBaselines=true".toString()
+            } else if (median > (baseline as long) * (1 + allowed)) {
+                regressions << "${metric} ${median} is more than ${Math.round(allowed * 100)}% over the baseline of ${baseline}".toString()
+            }
+        }
+        regressions
+    }
+
+    private static List<Integer> projectCounts() {
+        System.getProperty('performance.projectCounts', '100,500,2000').tokenize(',').collect { it.trim() as int }
+    }
+
+    private Properties run(SyntheticBuild build) {
+        // the feature flag is read once per plugin class loader, which daemons keep between builds, so each mode
+        // gets daemons of its own
+        GradleRunner.create()
+                .withTestKitDir(new File(workDir, build.coreBomSupport ? 'testkit-coreBomSupport' : 'testkit-classic'))
+                .withProjectDir(build.dir)
+                .withPluginClasspath()
+                .withArguments(SyntheticBuild.TASK, '--no-configuration-cache', '--stacktrace')
+                .build()
+        Properties results = new Properties()
+        build.results.withInputStream { results.load(it) }
+        results
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.sort(false)
+        sorted[sorted.size().intdiv(2)]
+    }
+}
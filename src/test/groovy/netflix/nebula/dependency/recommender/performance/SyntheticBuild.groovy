@@ -0,0 +1,233 @@
+/*
+ * Copyright 2026 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package netflix.nebula.dependency.recommender.performance
+
+/**
+ * Writes a multi-project build of <code>projects</code> subprojects backed by a local file Maven repository.
+ * <p>
+ * The root project recommends versions from a BOM. In the classic mode every third subproject adds a properties file
+ * and every fifth a map, and each uses the modules its own providers recommend; with core BOM support only the BOM
+ * is used. Subprojects form chains of <code>chainLength</code> projects, each exposing the previous one through
+ * <code>api</code>. Modules depend on older versions of each other, so every graph has conflicts to resolve.
+ * <p>
+ * The build writes its configuration time, the number of configurations its projects end up with, resolution time,
+ * the number of components in the resolved graphs and peak heap to
+ * <code>build/recommendation-performance.properties</code> when <code>recommendationPerformance</code> runs.
+ */
+class SyntheticBuild {
+    static final String TASK = 'recommendationPerformance'
+    static final int BOM_MODULES = 200
+    static final int PROPERTIES_MODULES = 50
+    static final int MAP_MODULES = 50
+
+    final File dir
+    final int projects
+    final boolean coreBomSupport
+    int chainLength = 50
+    int dependenciesPerProject = 3
+    String maxHeap = '4g'
+
+    SyntheticBuild(File dir, int projects, boolean coreBomSupport) {
+        this.dir = dir
+        this.projects = projects
+        this.coreBomSupport = coreBomSupport
+    }
+
+    File getResults() {
+        new File(dir, 'build/recommendation-performance.properties')
+    }
+
+    SyntheticBuild write() {
+        dir.mkdirs()
+        writeRepository()
+        writeRecommendations()
+
+        List<String> jvmArgs = ["-Xmx${maxHeap}".toString()]
+        if (coreBomSupport) {
+            // a JVM wide property, so a daemon is never shared between the two modes
+            jvmArgs << '-Dnebula.features.coreBomSupport=true'
+        }
+        new File(dir, 'gradle.properties').text = "org.gradle.jvmargs=${jvmArgs.join(' ')}\n"
+        new File(dir, 'settings.gradle').text = settingsScript()
+        new File(dir, 'build.gradle').text = rootScript()
+        for (int i = 0; i < projects; i++) {
+            File projectDir = new File(dir, projectName(i))
+            projectDir.mkdirs()
+            new File(projectDir, 'build.gradle').text = projectScript(i)
+        }
+        this
+    }
+
+    static String projectName(int i) {
+        String.format('p%04d', i)
+    }
+
+    static String module(int m) {
+        "sample.group${m.intdiv(10)}:module${m}"
+    }
+
+    private File getRepository() {
+        new File(dir, 'repo')
+    }
+
+    private void writeRepository() {
+        int modules = BOM_MODULES + PROPERTIES_MODULES + MAP_MODULES
+        for (int m = 0; m < modules; m++) {
+            // a binary tree of dependencies within each range, declared at the outdated version
+            int first = m - rangeStart(m)
+            List<Integer> children = [2 * first + 1, 2 * first + 2].findAll { it < rangeSize(m) }.collect { it + rangeStart(m) }
+            for (String version : ['1.0', '1.1']) {
+                writePom('jar', module(m), version, children.collect { dependencyXml(module(it), '1.0') }.join(''), '')
+            }
+        }
+        String managed = (0..<BOM_MODULES).collect { dependencyXml(module(it), '1.1') }.join('')
+        writePom('pom', 'sample:bom', '1.0', '', managed)
+    }
+
+    private static int rangeStart(int m) {
+        m < BOM_MODULES ? 0 : m < BOM_MODULES + PROPERTIES_MODULES ? BOM_MODULES : BOM_MODULES + PROPERTIES_MODULES
+    }
+
+    private static int rangeSize(int m) {
+        m < BOM_MODULES ? BOM_MODULES : m < BOM_MODULES + PROPERTIES_MODULES ? PROPERTIES_MODULES : MAP_MODULES
+    }
+
+    private static String dependencyXml(String module, String version) {
+        def (group, name) = module.split(':')
+        "<dependency><groupId>${group}</groupId><artifactId>${name}</artifactId><version>${version}</version></dependency>\n"
+    }
+
+    private void writePom(String packaging, String module, String version, String dependencies, String managed) {
+        def (group, name) = module.split(':')
+        File pom = new File(repository, "${group.replace('.', '/')}/${name}/${version}/${name}-${version}.pom")
+        pom.parentFile.mkdirs()
+        pom.text = """\
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>${group}</groupId>
+              <artifactId>${name}</artifactId>
+              <version>${version}</version>
+              <packaging>${packaging}</packaging>
+            """.stripIndent() +
+                (managed ? "<dependencyManagement><dependencies>\n${managed}</dependencies></dependencyManagement>\n" : '') +
+                (dependencies ? "<dependencies>\n${dependencies}</dependencies>\n" : '') +
+                '</project>\n'
+    }
+
+    private void writeRecommendations() {
+        new File(dir, 'recommendations.properties').text = (BOM_MODULES..<BOM_MODULES + PROPERTIES_MODULES)
+                .collect { "${module(it)} = 1.1" }.join('\n') + '\n'
+    }
+
+    private String settingsScript() {
+        '''\
+            import java.lang.management.ManagementFactory
+            import java.util.concurrent.atomic.AtomicLong
+
+            long start = System.nanoTime()
+            System.gc()
+            ManagementFactory.memoryPoolMXBeans.each { it.resetPeakUsage() }
+            gradle.ext.resolutionNanos = new AtomicLong()
+            gradle.ext.resolvedComponents = new AtomicLong()
+            gradle.projectsEvaluated {
+                gradle.ext.configurationNanos = System.nanoTime() - start
+                gradle.ext.configurationCount = gradle.rootProject.allprojects.sum { it.configurations.size() }
+            }
+
+            rootProject.name = 'synthetic'
+            '''.stripIndent() + (0..<projects).collect { "include '${projectName(it)}'\n" }.join('')
+    }
+
+    private String rootScript() {
+        """\
+            import java.lang.management.ManagementFactory
+            import java.lang.management.MemoryType
+
+            allprojects {
+                apply plugin: 'com.netflix.nebula.dependency-recommender'
+                repositories {
+                    maven { url = '${repository.toURI()}' }
+                }
+            }
+
+            dependencyRecommendations {
+                mavenBom module: 'sample:bom:1.0'
+            }
+
+            tasks.register('${TASK}') {
+                dependsOn subprojects.collect { "\${it.path}:resolveRecommended" }
+                def results = file('build/recommendation-performance.properties')
+                def counters = gradle.ext
+                doLast {
+                    long peakHeap = ManagementFactory.memoryPoolMXBeans.findAll { it.type == MemoryType.HEAP }
+                            .sum { it.peakUsage.used } as long
+                    results.parentFile.mkdirs()
+                    results.text = [
+                            "projects=${projects}",
+                            "configurationMs=\${counters.configurationNanos.intdiv(1000000)}",
+                            "configurationCount=\${counters.configurationCount}",
+                            "resolutionMs=\${counters.resolutionNanos.get().intdiv(1000000)}",
+                            "resolvedComponents=\${counters.resolvedComponents.get()}",
+                            "peakHeapMb=\${peakHeap.intdiv(1024 * 1024)}"
+                    ].join('\\n') + '\\n'
+                }
+            }
+            """.stripIndent()
+    }
+
+    private String projectScript(int i) {
+        List<String> providers = []
+        List<String> dependencies = []
+        for (int k = 0; k < dependenciesPerProject; k++) {
+            dependencies << "implementation '${module((i * 7 + k * 13) % BOM_MODULES)}'"
+        }
+        if (!coreBomSupport && i % 3 == 0) {
+            providers << "propertiesFile file: rootProject.file('recommendations.properties')"
+            dependencies << "implementation '${module(BOM_MODULES + i % PROPERTIES_MODULES)}'"
+        }
+        if (!coreBomSupport && i % 5 == 0) {
+            int m = BOM_MODULES + PROPERTIES_MODULES + i % MAP_MODULES
+            providers << "map recommendations: ['${module(m)}': '1.1']"
+            dependencies << "implementation '${module(m)}'"
+        }
+        if (i % chainLength != 0) {
+            dependencies << "api project(':${projectName(i - 1)}')"
+        }
+
+        List<String> lines = ["apply plugin: 'java-library'", '']
+        if (providers) {
+            lines << 'dependencyRecommendations {'
+            lines.addAll(providers.collect { "    ${it}".toString() })
+            lines << '}' << ''
+        }
+        lines << 'dependencies {'
+        lines.addAll(dependencies.collect { "    ${it}".toString() })
+        lines << '}' << ''
+        lines.join('\n') + '''\
+            def resolutionNanos = gradle.ext.resolutionNanos
+            def resolvedComponents = gradle.ext.resolvedComponents
+            def classpath = configurations.compileClasspath
+            tasks.register('resolveRecommended') {
+                doLast {
+                    long start = System.nanoTime()
+                    int components = classpath.incoming.resolutionResult.allComponents.size()
+                    resolutionNanos.addAndGet(System.nanoTime() - start)
+                    resolvedComponents.addAndGet(components)
+                }
+            }
+            '''.stripIndent()
+    }
+}
@@ -48,4 +48,67 @@ class DependencyLockProviderSpec extends Specification {
         recommender.getVersion('commons-logging', 'commons-logging') == '1.1.1'
         recommender.getVersion('commons-configuration', 'commons-configuration') == '1.1.2'
     }
+
+    def 'gradle lockfiles provide recommendations'() {
+        setup:
+        def recommender = new DependencyLockProvider()
+
+        def file = projectDir.newFile('gradle.lockfile')
+        file << '''\
+        # This is a Gradle generated file for dependency locking.
+        # Manual edits can break the build and are not advised.
+        # This file is expected to be part of source control.
+        commons-configuration:commons-configuration:1.1.2=runtimeClasspath
+        commons-logging:commons-logging:1.1.1=compileClasspath,runtimeClasspath
+        empty=annotationProcessor
+        '''.stripIndent()
+
+        when:
+        recommender.setFile(file)
+
+        then:
+        recommender.getVersion('commons-logging', 'commons-logging') == '1.1.1'
+        recommender.getVersion('commons-configuration', 'commons-configuration') == '1.1.2'
+        recommender.coordinates == ['commons-configuration:commons-configuration', 'commons-logging:commons-logging']
+    }
+
+    def 'a lock without recommendations is only read once'() {
+        setup:
+        def recommender = new DependencyLockProvider()
+        def reads = 0
+        recommender.inputProvider = {
+            reads++
+            new ByteArrayInputStream('{ "commons-logging:commons-logging": { "requested": "1.1.+" } }'.bytes)
+        } as InputStreamProvider
+
+        when:
+        def versions = (1..3).collect { recommender.getVersion('commons-logging', 'commons-logging') }
+
+        then:
+        versions == [null, null, null]
+        reads == 1
+    }
+
+    def 'recommendations that are set replace those of the lock'() {
+        setup:
+        def recommender = new DependencyLockProvider()
+
+        def file = projectDir.newFile()
+        file << '{ "commons-logging:commons-logging": { "locked": "1.1.1" } }'
+        recommender.setFile(file)
+
+        when:
+        recommender.recommendations = ['commons-configuration:commons-configuration': '1.1.2']
+
+        then:
+        recommender.getVersion('commons-logging', 'commons-logging') == null
+        recommender.getVersion('commons-configuration', 'commons-configuration') == '1.1.2'
+        recommender.coordinates as List == ['commons-configuration:commons-configuration']
+
+        when:
+        recommender.recommendations = null
+
+        then:
+        recommender.getVersion('commons-logging', 'commons-logging') == '1.1.1'
+    }
 }
@@ -84,4 +84,31 @@ class FileBasedRecommendationProviderSpec extends Specification {
         then:
         recommender.input.text == 'test'
     }
+
+    def 'module sources are resolved and parsed once per build'() {
+        setup:
+        def root = ProjectBuilder.builder().withProjectDir(projectDir.newFolder('root')).build()
+        def repo = projectDir.newFolder('repo')
+        def sample = new File(repo, 'sample/recommender/1.0')
+        sample.mkdirs()
+        new File(sample, 'recommender-1.0.properties') << 'com.google.guava:guava = 18.0'
+
+        def providers = ['a', 'b'].collect { name ->
+            def project = ProjectBuilder.builder().withName(name).withParent(root).build()
+            project.repositories { maven {
+                url repo
+                metadataSources {
+                    artifact()
+                }
+            } }
+            def provider = new PropertyFileRecommendationProvider(project)
+            provider.setModule('sample:recommender:1.0@properties')
+            provider
+        }
+
+        expect:
+        providers*.getVersion('com.google.guava', 'guava') == ['18.0', '18.0']
+        providers[0].@resolvedModule.is(providers[1].@resolvedModule)
+        providers[0].@recommendations.is(providers[1].@recommendations)
+    }
 }
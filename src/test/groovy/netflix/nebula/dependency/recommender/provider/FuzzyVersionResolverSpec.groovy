@@ -1,5 +1,6 @@
 package netflix.nebula.dependency.recommender.provider
 
+import org.gradle.api.InvalidUserDataException
 import spock.lang.Shared
 import spock.lang.Specification
 
@@ -61,4 +62,188 @@ class FuzzyVersionResolverSpec extends Specification {
         then:
         resolver.versionOf('com.sun.jersey:jersey-core') == null
     }
+
+    def 'group and name lookups give the same versions as coordinate lookups'() {
+        when:
+        recommendations = [
+            'GUAVA_VERSION': '18.0',
+            'com.google.guava:guava' : '$GUAVA_VERSION',
+            'com.sun.jersey:*': '1.20',
+            'com.sun.jersey:jersey-core': '1.23',
+        ]
+
+        then:
+        [['com.google.guava', 'guava'], ['com.sun.jersey', 'jersey-core'], ['com.sun.jersey', 'jersey-client'], ['some', 'other']].every {
+            resolver.versionOf(it[0], it[1]) == resolver.versionOf(it[0] + ':' + it[1])
+        }
+        resolver.versionOf('com.sun.jersey', 'jersey-client') == '1.20'
+    }
+
+    def 'aliases are resolved through globs'() {
+        when:
+        recommendations = [
+            'com.sun.jersey:*': '$JERSEY_VERSION',
+            'JERSEY_VERSION': '1.23',
+            'com.sun.jersey.contribs:*': '$com.sun.jersey:jersey-core'
+        ]
+
+        then:
+        resolver.versionOf('com.sun.jersey.contribs', 'jersey-spring') == '1.23'
+        resolver.globVersions() == ['com.sun.jersey:*': '1.23', 'com.sun.jersey.contribs:*': '1.23']
+    }
+
+    def 'aliases that refer to each other are reported'() {
+        when:
+        recommendations = [
+            'GUAVA_VERSION': '$com.google.guava:guava',
+            'com.google.guava:guava': '$GUAVA_VERSION',
+        ]
+        resolver.versionOf('com.google.guava', 'guava')
+
+        then:
+        def e = thrown(InvalidUserDataException)
+        e.message.contains('GUAVA_VERSION -> com.google.guava:guava -> GUAVA_VERSION')
+    }
+
+    def 'a glob that refers to a module it matches is reported'() {
+        when:
+        recommendations = ['com.sun.jersey:*': '$com.sun.jersey:jersey-core']
+        resolver.resolveAliases()
+
+        then:
+        def e = thrown(InvalidUserDataException)
+        e.message.contains('com.sun.jersey:* -> com.sun.jersey:*')
+    }
+
+    def 'aliases that refer to nothing are reported once'() {
+        when:
+        recommendations = ['com.google.guava:guava': '$GUAVA_VERSION']
+        resolver.versionOf('com.google.guava', 'guava')
+
+        then:
+        def e = thrown(InvalidUserDataException)
+        e.message.contains('$GUAVA_VERSION')
+
+        when:
+        def version = resolver.versionOf('com.google.guava', 'guava')
+
+        then:
+        version == null
+    }
+
+    def 'properties that fail to be read are read again on the next lookup'() {
+        setup:
+        def reads = 0
+        def failing = [
+            'propertyNames': { if (reads++ == 0) throw new IllegalStateException('unreadable'); ['com.google.guava:guava'] },
+            'propertyValue': { name -> '18.0' }
+        ] as FuzzyVersionResolver
+
+        when:
+        failing.versionOf('com.google.guava', 'guava')
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == 'unreadable'
+
+        when:
+        def version = failing.versionOf('com.google.guava', 'guava')
+
+        then:
+        version == '18.0'
+    }
+
+    def 'properties with broken aliases do not affect the others'() {
+        when:
+        recommendations = [
+            'GUAVA_VERSION': '$com.google.guava:guava',
+            'com.google.guava:guava': '$GUAVA_VERSION',
+            'some:other': '$com.google.guava:guava',
+            'commons-logging:commons-logging': '1.1',
+            'com.sun.jersey:*': '1.20'
+        ]
+        resolver.resolveAliases()
+
+        then:
+        thrown(InvalidUserDataException)
+        resolver.versionOf('com.google.guava', 'guava') == null
+        resolver.versionOf('some', 'other') == null
+        resolver.versionOf('commons-logging', 'commons-logging') == '1.1'
+        resolver.versionOf('com.sun.jersey', 'jersey-core') == '1.20'
+    }
+
+    def 'glob versions are in the order the globs are declared, even when an alias resolves through a later glob'() {
+        when:
+        recommendations = [
+            'p:q': '$xb',
+            'a*': '1',
+            '*b': '2'
+        ]
+
+        then:
+        resolver.versionOf('p', 'q') == '2'
+        resolver.versionOf('a', 'b') == '1'
+        resolver.globVersions().keySet() as List == ['a*', '*b']
+    }
+
+    def 'glob matches and misses are remembered'() {
+        setup:
+        recommendations = [
+            'com.google.guava:guava': '18.0',
+            'com.sun.jersey:*': '1.20'
+        ]
+        def stats = new RecommendationStatsService.ProviderStats()
+        resolver.setStats(stats)
+
+        when:
+        def versions = (1..2).collectMany {
+            [resolver.versionOf('com.google.guava', 'guava'), resolver.versionOf('com.sun.jersey', 'jersey-core'),
+             resolver.versionOf('doesnotexist', 'doesnotexist')]
+        }
+
+        then:
+        versions == ['18.0', '1.20', null] * 2
+        def counters = stats.toMap()
+        counters.memoHits == 2
+        counters.memoMisses == 2
+        counters.memoHitRatio == 0.5
+        counters.globMatches == 2
+        counters.exactMatches == 2
+    }
+
+    def 'lookups by coordinate share the memo'() {
+        setup:
+        recommendations = ['com.sun.jersey:*': '1.20']
+        def stats = new RecommendationStatsService.ProviderStats()
+        resolver.setStats(stats)
+
+        when:
+        def versions = [resolver.versionOf('com.sun.jersey:jersey-core'), resolver.versionOf('com.sun.jersey', 'jersey-core'),
+                        resolver.versionOf('com.sun.jersey:jersey-core')]
+
+        then:
+        versions == ['1.20'] * 3
+        stats.toMap().memoMisses == 1
+        stats.toMap().memoHits == 2
+    }
+
+    def 'the memo keeps the modules looked up recently when it is full'() {
+        setup:
+        recommendations = ['com.sun.jersey:*': '1.20']
+        def stats = new RecommendationStatsService.ProviderStats()
+        resolver.setStats(stats)
+
+        when:
+        resolver.versionOf('com.sun.jersey', 'recent')
+        (1..FuzzyVersionResolver.MEMO_SIZE).each {
+            resolver.versionOf('com.sun.jersey', "module$it".toString())
+            resolver.versionOf('com.sun.jersey', 'recent')
+        }
+        def version = resolver.versionOf('com.sun.jersey', 'module1')
+
+        then:
+        version == '1.20'
+        stats.toMap().memoHits == FuzzyVersionResolver.MEMO_SIZE
+        stats.toMap().memoMisses == FuzzyVersionResolver.MEMO_SIZE + 2
+    }
 }
@@ -0,0 +1,107 @@
+package netflix.nebula.dependency.recommender.provider
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.regex.Pattern
+
+class GlobIndexSpec extends Specification {
+
+    @Unroll
+    def '#glob matches #key is #expected'() {
+        when:
+        def index = new GlobIndex()
+        index.add(glob, '1.0')
+        index.seal()
+
+        then:
+        (index.versionOf(key) == '1.0') == expected
+
+        where:
+        glob                        | key                               | expected
+        'com.sun.jersey:*'          | 'com.sun.jersey:jersey-core'      | true
+        'com.sun.jersey:*'          | 'com.sun.jersey:'                 | true
+        'com.sun.jersey:*'          | 'com.sun.jerse:x'                 | false
+        '*:guava'                   | 'com.google.guava:guava'          | true
+        '*:guava'                   | 'com.google.guava:guava-testlib'  | false
+        'com.*.jackson*:*-core'     | 'com.fasterxml.jackson.core:jackson-core' | true
+        'com.*.jackson*:*-core'     | 'com.fasterxml.jackson.core:jackson-databind' | false
+        'a*a*a'                     | 'aa'                              | false
+        'a*a*a'                     | 'aaa'                             | true
+        'ab*ba'                     | 'aba'                             | false
+        '*'                         | ''                                | true
+        '**'                        | 'anything'                        | true
+        'com.sun.jersey:jersey.co*' | 'com.sun.jersey:jersey-core'      | false
+    }
+
+    def 'heaviest literal weight wins and ties go to the first glob added'() {
+        when:
+        def index = new GlobIndex()
+        index.add('com.sun.jersey:*', '1.20')
+        index.add('com.sun.*:jersey-*', '1.21')
+        index.add('com.sun.jersey:jersey-*', '1.23')
+        index.add('com.sun.jersey:*-core', '1.24')
+        index.seal()
+
+        then:
+        index.versionOf('com.sun.jersey:jersey-core') == '1.23'
+        index.versionOf('com.sun.jersey:jersey-client') == '1.23'
+        index.versionOf('com.sun.jersey:other-core') == '1.24'
+        index.versionOf('com.sun.jersey:other') == '1.20'
+        index.versionOf('com.sun.grizzly:jersey-core') == '1.21'
+        index.versionOf('org.glassfish:jersey-core') == null
+    }
+
+    def 'index agrees with sequential regex matching in weight order'() {
+        setup:
+        def random = new Random(42)
+        def alphabet = ['a', 'b', '.', ':', '-']
+        def randomString = { int max ->
+            def sb = new StringBuilder()
+            random.nextInt(max + 1).times { sb.append(alphabet[random.nextInt(alphabet.size())]) }
+            sb.toString()
+        }
+
+        expect:
+        200.times {
+            def globs = new LinkedHashMap<String, String>()
+            (1 + random.nextInt(30)).times { i ->
+                def glob = new StringBuilder()
+                (1 + random.nextInt(3)).times { glob.append(randomString(3)).append('*') }
+                glob.append(randomString(3))
+                globs.put(glob.toString(), "v$i".toString())
+            }
+
+            def index = new GlobIndex()
+            globs.each { glob, version -> index.add(glob, version) }
+            index.seal()
+            def reference = new ReferenceGlobs(globs)
+
+            100.times {
+                def key = randomString(10)
+                assert index.versionOf(key) == reference.versionOf(key)
+            }
+        }
+    }
+
+    /**
+     * The linear scan that the index replaced: every glob is compiled to a regular expression and tried in order of
+     * descending literal weight, keeping insertion order for ties.
+     */
+    static class ReferenceGlobs {
+        List<Map.Entry<Pattern, String>> patterns = []
+        List<Integer> weights = []
+
+        ReferenceGlobs(Map<String, String> globs) {
+            def sorted = globs.entrySet().sort(false) { -(it.key.replace('*', '').length()) }
+            sorted.each { entry ->
+                def regex = entry.key.split('\\*', -1).collect { Pattern.quote(it) }.join('.*?')
+                patterns << new AbstractMap.SimpleEntry(Pattern.compile(regex), entry.value)
+            }
+        }
+
+        String versionOf(String key) {
+            patterns.find { it.key.matcher(key).matches() }?.value
+        }
+    }
+}
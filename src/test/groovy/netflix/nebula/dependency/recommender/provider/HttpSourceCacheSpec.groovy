@@ -0,0 +1,118 @@
+package netflix.nebula.dependency.recommender.provider
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class HttpSourceCacheSpec extends Specification {
+    @Rule TemporaryFolder projectDir
+
+    HttpServer server
+    URL url
+    String content = 'com.google.guava:guava = 18.0'
+    String etag = '"v1"'
+    long delayMillis = 0
+    List<String> responses = []
+
+    def setup() {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.loopbackAddress, 0), 0)
+        server.createContext('/recommendations.properties') { HttpExchange exchange ->
+            Thread.sleep(delayMillis)
+            if (exchange.requestHeaders.getFirst('If-None-Match') == etag) {
+                responses << 'not modified'
+                exchange.sendResponseHeaders(304, -1)
+            } else {
+                responses << 'ok'
+                def body = content.bytes
+                exchange.responseHeaders.add('ETag', etag)
+                exchange.sendResponseHeaders(200, body.length)
+                exchange.responseBody.write(body)
+            }
+            exchange.close()
+        }
+        server.start()
+        url = new URL("http://localhost:${server.address.port}/recommendations.properties")
+    }
+
+    def cleanup() {
+        server.stop(0)
+    }
+
+    def 'sources are revalidated once per build'() {
+        when:
+        def firstBuild = cache()
+        def first = [firstBuild.open(url).text, firstBuild.open(url).text]
+        def second = cache().open(url).text
+
+        then:
+        first == [content, content]
+        second == content
+        responses == ['ok', 'not modified']
+    }
+
+    def 'changed sources are downloaded again'() {
+        when:
+        cache().open(url).text
+        content = 'com.google.guava:guava = 19.0'
+        etag = '"v2"'
+        def changed = cache().open(url).text
+
+        then:
+        changed == 'com.google.guava:guava = 19.0'
+        responses == ['ok', 'ok']
+    }
+
+    def 'fresh copies are not revalidated'() {
+        when:
+        cache(TimeUnit.HOURS.toMillis(1)).open(url).text
+        def cached = cache(TimeUnit.HOURS.toMillis(1)).open(url).text
+
+        then:
+        cached == content
+        responses == ['ok']
+    }
+
+    def 'copies are used when the source cannot be reached'() {
+        setup:
+        cache().open(url).text
+        server.stop(0)
+
+        expect:
+        cache().open(url).text == content
+
+        when:
+        cache(0, false).open(url)
+
+        then:
+        thrown(IOException)
+    }
+
+    def 'copies are used without revalidation when gradle is offline'() {
+        when:
+        cache().open(url).text
+        def offline = new HttpSourceCache(projectDir.root, 0, 1000, 1000, true, true).open(url).text
+
+        then:
+        offline == content
+        responses == ['ok']
+    }
+
+    def 'slow sources time out'() {
+        setup:
+        delayMillis = 2000
+
+        when:
+        new HttpSourceCache(projectDir.root, 0, 1000, 100, true, false).open(url)
+
+        then:
+        thrown(SocketTimeoutException)
+    }
+
+    private HttpSourceCache cache(long ttlMillis = 0, boolean offlineFallback = true) {
+        new HttpSourceCache(projectDir.root, ttlMillis, 1000, 1000, offlineFallback, false)
+    }
+}
@@ -0,0 +1,30 @@
+package netflix.nebula.dependency.recommender.provider
+
+import spock.lang.Specification
+
+class IvyDependencyReaderSpec extends Specification {
+    def 'only dependencies of the dependencies section are read'() {
+        when:
+        def versions = IvyDependencyReader.read(new ByteArrayInputStream('''\
+            <?xml version="1.0" encoding="UTF-8"?>
+            <ivy-module version="2.0" xmlns:e="http://ant.apache.org/ivy/extra">
+              <info organisation="sample" module="recommender" revision="1.0"/>
+              <dependencies defaultconfmapping="%-&gt;default">
+                <dependency org="netflix" name="platform-ipc" rev="2.1287.0" conf="runtime-&gt;default">
+                  <artifact name="platform-ipc"/>
+                </dependency>
+                <dependency org="netflix" name="extra" e:rev="1.0"/>
+                <exclude org="netflix" name="excluded" rev="1.0"/>
+              </dependencies>
+              <other>
+                <dependencies>
+                  <dependency org="netflix" name="nested" rev="1.0"/>
+                </dependencies>
+              </other>
+            </ivy-module>
+            '''.stripIndent().bytes))
+
+        then:
+        versions == ['netflix:platform-ipc': '2.1287.0', 'netflix:extra': '']
+    }
+}
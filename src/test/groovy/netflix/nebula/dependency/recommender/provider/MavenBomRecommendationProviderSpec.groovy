@@ -255,4 +255,267 @@ class MavenBomRecommendationProviderSpec extends Specification {
         'test:nebula-bom:0.1.0'          | 'test:nebula-bom-snapshot:0.1.0' | '1.1.0'
         'test:nebula-bom-snapshot:0.1.0' | 'test:nebula-bom:0.1.0'          | '1.0.0'
     }
+
+    def 'projects share a parsed BOM unless they interpolate it with different property values'() {
+        setup:
+        def repo = projectDir.newFolder('repo')
+        def sample = new File(repo, 'sample/recommender/1.0')
+        sample.mkdirs()
+        new File(sample, 'recommender-1.0.pom') << '''
+            <project xmlns="http://maven.apache.org/POM/4.0.0" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                 xsi:schemaLocation="http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>sample</groupId>
+              <artifactId>recommender</artifactId>
+              <version>1.0</version>
+
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>commons-configuration</groupId>
+                    <artifactId>commons-configuration</artifactId>
+                    <version>${commons.version}</version>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+            </project>
+        '''
+
+        def root = ProjectBuilder.builder().withName('root').build()
+        def projects = ['a', 'b', 'c'].collect { ProjectBuilder.builder().withName(it).withParent(root).build() }
+        projects.each { p ->
+            p.apply plugin: 'java'
+            p.apply plugin: DependencyRecommendationsPlugin
+            p.repositories { maven { url repo } }
+            p.dependencyRecommendations {
+                mavenBom module: 'sample:recommender:1.0'
+            }
+        }
+        projects[0].extensions.add('commons.version', '1.1.2')
+        projects[1].extensions.add('commons.version', '1.1.2')
+        projects[2].extensions.add('commons.version', '1.1.3')
+
+        when:
+        def recommendations = projects.collect { new MavenBomRecommendationProvider(it, 'nebulaRecommenderBom').recommendations }
+
+        then:
+        recommendations[0].is(recommendations[1])
+        recommendations[0]['commons-configuration:commons-configuration'] == '1.1.2'
+        recommendations[2]['commons-configuration:commons-configuration'] == '1.1.3'
+    }
+
+    def 'projects only share a parsed BOM when they resolve its parent from the same repositories'() {
+        setup:
+        def repos = ['1.1.1', '1.2'].collect { loggingVersion ->
+            def repo = projectDir.newFolder("repo-$loggingVersion")
+            def parent = new File(repo, 'sample/recommender-parent/1.0')
+            parent.mkdirs()
+            new File(parent, 'recommender-parent-1.0.pom').text = """
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>sample</groupId>
+                  <artifactId>recommender-parent</artifactId>
+                  <version>1.0</version>
+                  <packaging>pom</packaging>
+                  <dependencyManagement>
+                    <dependencies>
+                      <dependency>
+                        <groupId>commons-logging</groupId>
+                        <artifactId>commons-logging</artifactId>
+                        <version>$loggingVersion</version>
+                      </dependency>
+                    </dependencies>
+                  </dependencyManagement>
+                </project>
+            """
+            def bom = new File(repo, 'sample/recommender/1.0')
+            bom.mkdirs()
+            new File(bom, 'recommender-1.0.pom').text = '''
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <parent>
+                    <groupId>sample</groupId>
+                    <artifactId>recommender-parent</artifactId>
+                    <version>1.0</version>
+                  </parent>
+                  <artifactId>recommender</artifactId>
+                  <packaging>pom</packaging>
+                </project>
+            '''
+            repo
+        }
+
+        def root = ProjectBuilder.builder().withName('root').build()
+        def projects = ['a', 'b'].collect { ProjectBuilder.builder().withName(it).withParent(root).build() }
+        projects.eachWithIndex { p, i ->
+            p.apply plugin: 'java'
+            p.apply plugin: DependencyRecommendationsPlugin
+            p.repositories { maven { url repos[i] } }
+            p.dependencyRecommendations {
+                mavenBom module: 'sample:recommender:1.0'
+            }
+        }
+
+        when:
+        def recommendations = projects.collect { new MavenBomRecommendationProvider(it, 'nebulaRecommenderBom').recommendations }
+
+        then:
+        recommendations[0]['commons-logging:commons-logging'] == '1.1.1'
+        recommendations[1]['commons-logging:commons-logging'] == '1.2'
+    }
+
+    def 'several boms with parents are built concurrently and merged in declaration order'() {
+        setup:
+        def repo = projectDir.newFolder('repo')
+        def boms = (1..5).collect { "bom$it".toString() }
+        boms.eachWithIndex { bom, i ->
+            def parentDir = new File(repo, "sample/$bom-parent/1.0")
+            parentDir.mkdirs()
+            new File(parentDir, "$bom-parent-1.0.pom").text = """
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <groupId>sample</groupId>
+                  <artifactId>$bom-parent</artifactId>
+                  <version>1.0</version>
+                  <packaging>pom</packaging>
+                  <dependencyManagement>
+                    <dependencies>
+                      <dependency>
+                        <groupId>example</groupId>
+                        <artifactId>shared</artifactId>
+                        <version>1.$i</version>
+                      </dependency>
+                      <dependency>
+                        <groupId>example</groupId>
+                        <artifactId>$bom</artifactId>
+                        <version>2.$i</version>
+                      </dependency>
+                    </dependencies>
+                  </dependencyManagement>
+                </project>
+            """
+            def bomDir = new File(repo, "sample/$bom/1.0")
+            bomDir.mkdirs()
+            new File(bomDir, "$bom-1.0.pom").text = """
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <parent>
+                    <groupId>sample</groupId>
+                    <artifactId>$bom-parent</artifactId>
+                    <version>1.0</version>
+                  </parent>
+                  <artifactId>$bom</artifactId>
+                  <packaging>pom</packaging>
+                </project>
+            """
+        }
+
+        def project = ProjectBuilder.builder().build()
+        project.apply plugin: 'java'
+        project.apply plugin: DependencyRecommendationsPlugin
+        project.repositories { maven { url repo } }
+        project.dependencyRecommendations {
+            boms.each { mavenBom module: "sample:$it:1.0" }
+        }
+
+        when:
+        def provider = new MavenBomRecommendationProvider(project, 'nebulaRecommenderBom')
+
+        then:
+        provider.getVersion('example', 'shared') == '1.4'
+        boms.withIndex().every { bom, i -> provider.getVersion('example', bom) == "2.$i" }
+    }
+
+    def 'boms built concurrently are interpolated with project properties, including those read by poms that were not prefetched'() {
+        setup:
+        def repo = projectDir.newFolder('repo')
+        def imported = new File(repo, 'sample/imported/2.0')
+        imported.mkdirs()
+        new File(imported, 'imported-2.0.pom').text = '''
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>sample</groupId>
+              <artifactId>imported</artifactId>
+              <version>2.0</version>
+              <packaging>pom</packaging>
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>commons-logging</groupId>
+                    <artifactId>commons-logging</artifactId>
+                    <version>${logging.version}</version>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+            </project>
+        '''
+        def parent = new File(repo, 'sample/parent/1.0')
+        parent.mkdirs()
+        new File(parent, 'parent-1.0.pom').text = '''
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>sample</groupId>
+              <artifactId>parent</artifactId>
+              <version>1.0</version>
+              <packaging>pom</packaging>
+              <properties>
+                <imported.version>2.0</imported.version>
+              </properties>
+            </project>
+        '''
+        def boms = ['bom1', 'bom2']
+        boms.each { bom ->
+            def bomDir = new File(repo, "sample/$bom/1.0")
+            bomDir.mkdirs()
+            // the import's version is a property of the parent, so it is only known once the model is built
+            new File(bomDir, "$bom-1.0.pom").text = """
+                <project xmlns="http://maven.apache.org/POM/4.0.0">
+                  <modelVersion>4.0.0</modelVersion>
+                  <parent>
+                    <groupId>sample</groupId>
+                    <artifactId>parent</artifactId>
+                    <version>1.0</version>
+                  </parent>
+                  <artifactId>$bom</artifactId>
+                  <version>1.0</version>
+                  <packaging>pom</packaging>
+                  <dependencyManagement>
+                    <dependencies>
+                      <dependency>
+                        <groupId>sample</groupId>
+                        <artifactId>imported</artifactId>
+                        <version>\${imported.version}</version>
+                        <type>pom</type>
+                        <scope>import</scope>
+                      </dependency>
+                      <dependency>
+                        <groupId>example</groupId>
+                        <artifactId>$bom</artifactId>
+                        <version>\${${bom}.version}</version>
+                      </dependency>
+                    </dependencies>
+                  </dependencyManagement>
+                </project>
+            """
+        }
+
+        def project = ProjectBuilder.builder().build()
+        project.apply plugin: 'java'
+        project.apply plugin: DependencyRecommendationsPlugin
+        project.repositories { maven { url repo } }
+        project.dependencyRecommendations {
+            boms.each { mavenBom module: "sample:$it:1.0" }
+        }
+        project.extensions.add('logging.version', '1.2')
+        project.extensions.add('bom1.version', '1.1')
+        project.extensions.add('bom2.version', '2.1')
+
+        when:
+        def provider = new MavenBomRecommendationProvider(project, 'nebulaRecommenderBom')
+
+        then:
+        provider.getVersion('commons-logging', 'commons-logging') == '1.2'
+        provider.getVersion('example', 'bom1') == '1.1'
+        provider.getVersion('example', 'bom2') == '2.1'
+    }
 }
@@ -0,0 +1,89 @@
+package netflix.nebula.dependency.recommender.provider
+
+import org.gradle.testfixtures.ProjectBuilder
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class MavenPomResolverSpec extends Specification {
+    @Rule TemporaryFolder projectDir
+
+    def 'parents and imports are prefetched level by level and remembered for the build'() {
+        setup:
+        def repo = projectDir.newFolder('repo')
+        writePom(repo, 'grandparent', '')
+        writePom(repo, 'parent', '''
+              <parent>
+                <groupId>sample</groupId>
+                <artifactId>grandparent</artifactId>
+                <version>1.0</version>
+              </parent>
+        ''')
+        writePom(repo, 'imported', '')
+        def bom = writePom(repo, 'bom', '''
+              <parent>
+                <groupId>sample</groupId>
+                <artifactId>parent</artifactId>
+                <version>1.0</version>
+              </parent>
+              <properties>
+                <imported.version>1.0</imported.version>
+              </properties>
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>${project.groupId}</groupId>
+                    <artifactId>imported</artifactId>
+                    <version>${imported.version}</version>
+                    <type>pom</type>
+                    <scope>import</scope>
+                  </dependency>
+                  <dependency>
+                    <groupId>sample</groupId>
+                    <artifactId>missing</artifactId>
+                    <version>1.0</version>
+                    <type>pom</type>
+                    <scope>import</scope>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+        ''')
+
+        def project = ProjectBuilder.builder().build()
+        project.repositories { maven { url repo } }
+        def service = MavenBomRecommendationsService.register(project).get()
+        def resolver = new MavenPomResolver(project, service)
+
+        when:
+        resolver.prefetch([bom])
+
+        then:
+        ['parent', 'grandparent', 'imported'].every {
+            resolver.findResolved("sample:$it:1.0@pom") == new File(repo, "sample/$it/1.0/$it-1.0.pom")
+        }
+        resolver.findResolved('sample:missing:1.0@pom') == null
+
+        when:
+        def other = new MavenPomResolver(ProjectBuilder.builder().withParent(project).build(), service)
+
+        then:
+        other.resolve('sample:parent:1.0@pom') == new File(repo, 'sample/parent/1.0/parent-1.0.pom')
+    }
+
+    private static File writePom(File repo, String artifactId, String body) {
+        def dir = new File(repo, "sample/$artifactId/1.0")
+        dir.mkdirs()
+        def pom = new File(dir, "$artifactId-1.0.pom")
+        pom.text = """
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>sample</groupId>
+              <artifactId>$artifactId</artifactId>
+              <version>1.0</version>
+              <packaging>pom</packaging>
+              $body
+            </project>
+        """
+        pom
+    }
+}
@@ -0,0 +1,210 @@
+package netflix.nebula.dependency.recommender.provider
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class PersistentBomCacheSpec extends Specification {
+    @Rule TemporaryFolder projectDir
+
+    File repo
+    File gradleUserHome
+    HttpServer server
+
+    def setup() {
+        repo = projectDir.newFolder('repo')
+        gradleUserHome = projectDir.newFolder('gradleUserHome')
+    }
+
+    def cleanup() {
+        server?.stop(0)
+    }
+
+    def 'cached recommendations are reused by later builds'() {
+        setup:
+        writeParent('1.1.1')
+        writeBom()
+
+        when:
+        def first = recommendations(newProject())
+        def cached = cacheEntries()
+        def second = recommendations(newProject())
+
+        then:
+        first['commons-logging:commons-logging'] == '1.1.1'
+        cached.size() == 1
+        second == first
+        cacheEntries() == cached
+    }
+
+    def 'a change to a parent pom invalidates the cached recommendations'() {
+        setup:
+        writeParent('1.1.1')
+        writeBom()
+
+        when:
+        def first = recommendations(newProject())
+        writeParent('1.2')
+        def second = recommendations(newProject())
+
+        then:
+        first['commons-logging:commons-logging'] == '1.1.1'
+        second['commons-logging:commons-logging'] == '1.2'
+        cacheEntries().size() == 2
+    }
+
+    def 'a republished snapshot parent invalidates the cached recommendations'() {
+        setup:
+        def url = serveRepo()
+        writeParent('1.1.1', '1.0-SNAPSHOT')
+        writeBom('1.0-SNAPSHOT')
+
+        when:
+        def first = recommendations(newProject([:], url))
+        writeParent('1.2', '1.0-SNAPSHOT')
+        def second = recommendations(newProject([:], url))
+
+        then:
+        first['commons-logging:commons-logging'] == '1.1.1'
+        // both parents are in Gradle's cache, and only the one resolved by the second build is current
+        new File(gradleUserHome, 'caches/modules-2/files-2.1/sample/recommender-parent/1.0-SNAPSHOT').list().size() == 2
+        second['commons-logging:commons-logging'] == '1.2'
+    }
+
+    def 'a change to an interpolated project property invalidates the cached recommendations'() {
+        setup:
+        writeParent('${logging.version}')
+        writeBom()
+
+        when:
+        def first = recommendations(newProject(['logging.version': '1.1.1']))
+        def second = recommendations(newProject(['logging.version': '1.2']))
+
+        then:
+        first['commons-logging:commons-logging'] == '1.1.1'
+        second['commons-logging:commons-logging'] == '1.2'
+    }
+
+    def 'entries are evicted by age and then by size'() {
+        setup:
+        def cacheDir = projectDir.newFolder('cache')
+        def cache = new PersistentBomCache(cacheDir)
+        def bom = { String version -> new MavenBomRecommendationsService.ParsedBom("sample:bom:$version", ['a:b': version], [:], [:], [:]) }
+        cache.store('stale', bom('1'))
+        cache.store('old', bom('2'))
+        cache.store('new', bom('3'))
+        def now = System.currentTimeMillis()
+        new File(cacheDir, 'stale').listFiles()*.setLastModified(now - TimeUnit.DAYS.toMillis(40))
+        new File(cacheDir, 'old').listFiles()*.setLastModified(now - TimeUnit.DAYS.toMillis(2))
+        def entrySize = new File(cacheDir, 'new').listFiles()[0].length()
+
+        when:
+        cache.cleanup(30, entrySize * 2)
+
+        then:
+        cacheDir.list().sort() == ['new', 'old']
+
+        when:
+        cache.cleanup(30, entrySize)
+
+        then:
+        cacheDir.list() as List == ['new']
+        cache.load('new', { null }, { [:] })?.recommendations == ['a:b': '3']
+    }
+
+    private Project newProject(Map<String, String> properties = [:], URI repoUrl = repo.toURI()) {
+        def project = ProjectBuilder.builder().withGradleUserHomeDir(gradleUserHome).build()
+        // snapshots are checked again by every build, as if with --refresh-dependencies
+        project.gradle.startParameter.refreshDependencies = true
+        project.apply plugin: 'java'
+        project.apply plugin: DependencyRecommendationsPlugin
+        properties.each { k, v -> project.extensions.extraProperties.set(k, v) }
+        project.repositories {
+            maven {
+                url = repoUrl
+                allowInsecureProtocol = true
+            }
+        }
+        project.dependencies {
+            nebulaRecommenderBom 'sample:recommender:1.0@pom'
+        }
+        project
+    }
+
+    private static Map<String, String> recommendations(Project project) {
+        new MavenBomRecommendationProvider(project, 'nebulaRecommenderBom').recommendations
+    }
+
+    private List<String> cacheEntries() {
+        def boms = new File(gradleUserHome, 'caches/nebula-dependency-recommender/boms')
+        boms.listFiles().collectMany { it.list() as List }.sort()
+    }
+
+    private URI serveRepo() {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.loopbackAddress, 0), 0)
+        server.createContext('/') { HttpExchange exchange ->
+            def file = new File(repo, exchange.requestURI.path)
+            if (!file.isFile()) {
+                exchange.sendResponseHeaders(404, -1)
+            } else if (exchange.requestMethod == 'HEAD') {
+                exchange.responseHeaders.add('Content-Length', String.valueOf(file.length()))
+                exchange.sendResponseHeaders(200, -1)
+            } else {
+                def body = file.bytes
+                exchange.sendResponseHeaders(200, body.length)
+                exchange.responseBody.write(body)
+            }
+            exchange.close()
+        }
+        server.start()
+        new URI("http://localhost:${server.address.port}/")
+    }
+
+    private void writeParent(String loggingVersion, String version = '1.0') {
+        def parent = new File(repo, "sample/recommender-parent/$version")
+        parent.mkdirs()
+        new File(parent, "recommender-parent-${version}.pom").text = """
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>sample</groupId>
+              <artifactId>recommender-parent</artifactId>
+              <version>$version</version>
+              <packaging>pom</packaging>
+
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>commons-logging</groupId>
+                    <artifactId>commons-logging</artifactId>
+                    <version>$loggingVersion</version>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+            </project>
+        """
+    }
+
+    private void writeBom(String parentVersion = '1.0') {
+        def sample = new File(repo, 'sample/recommender/1.0')
+        sample.mkdirs()
+        new File(sample, 'recommender-1.0.pom').text = """
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <parent>
+                <groupId>sample</groupId>
+                <artifactId>recommender-parent</artifactId>
+                <version>$parentVersion</version>
+              </parent>
+              <artifactId>recommender</artifactId>
+              <version>1.0</version>
+            </project>
+        """
+    }
+}
@@ -1,11 +1,15 @@
 package netflix.nebula.dependency.recommender.provider
 
+import org.gradle.api.InvalidUserDataException
 import org.gradle.api.Project
 import org.gradle.testfixtures.ProjectBuilder
 import org.junit.Rule
 import org.junit.rules.TemporaryFolder
 import spock.lang.Specification
 
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+
 class PropertyFileRecommendationProviderSpec extends Specification {
     @Rule TemporaryFolder projectDir
 
@@ -52,6 +56,23 @@ class PropertyFileRecommendationProviderSpec extends Specification {
         provider.getVersion('some', 'other') == '18.0'
     }
 
+    def 'value references that form a cycle are reported when the source is loaded'() {
+        setup:
+        propFile << '''
+            GUAVA_VERSION = $com.google.guava:guava
+            com.google.guava:guava = $GUAVA_VERSION
+        '''
+        provider.setFile(propFile)
+        provider.prefetch({ Runnable it -> it.run() } as Executor)
+
+        when:
+        provider.getVersion('commons-logging', 'commons-logging')
+
+        then:
+        def e = thrown(InvalidUserDataException)
+        e.message.contains('GUAVA_VERSION -> com.google.guava:guava -> GUAVA_VERSION')
+    }
+
     def 'comments are respected for full-line and end-of-line comments'() {
         when:
         propFile << '''
@@ -75,4 +96,62 @@ class PropertyFileRecommendationProviderSpec extends Specification {
         then:
         provider.getVersion('com.sun.jersey', 'jersey-core') == '1.23'
     }
+
+    def 'prefetched sources are loaded in the background'() {
+        setup:
+        def executor = Executors.newSingleThreadExecutor()
+        def loadedOn = []
+        provider.inputProvider = {
+            loadedOn << Thread.currentThread()
+            new ByteArrayInputStream('com.google.guava:guava = 18.0'.bytes)
+        } as InputStreamProvider
+
+        when:
+        provider.prefetch(executor)
+        executor.submit({}).get()
+
+        then:
+        provider.getVersion('com.google.guava', 'guava') == '18.0'
+        loadedOn.size() == 1
+        loadedOn[0] != Thread.currentThread()
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def 'a lookup loads a prefetched source that has not started loading yet'() {
+        setup:
+        def reads = 0
+        provider.inputProvider = {
+            reads++
+            new ByteArrayInputStream('com.google.guava:guava = 18.0'.bytes)
+        } as InputStreamProvider
+
+        when:
+        provider.prefetch({ } as Executor)
+
+        then:
+        provider.getVersion('com.google.guava', 'guava') == '18.0'
+        provider.getVersion('com.google.guava', 'guava') == '18.0'
+        reads == 1
+    }
+
+    def 'a prefetched source that fails to load is reported by the first lookup'() {
+        setup:
+        provider.setFile(new File(projectDir.root, 'missing.properties'))
+        provider.prefetch({ Runnable it -> it.run() } as Executor)
+
+        when:
+        provider.getVersion('com.google.guava', 'guava')
+
+        then:
+        def e = thrown(InvalidUserDataException)
+        e.cause instanceof FileNotFoundException
+
+        when:
+        def version = provider.getVersion('com.google.guava', 'guava')
+
+        then:
+        version == null
+    }
 }
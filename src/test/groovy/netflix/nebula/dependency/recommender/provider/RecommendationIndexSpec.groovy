@@ -0,0 +1,87 @@
+package netflix.nebula.dependency.recommender.provider
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+class RecommendationIndexSpec extends Specification {
+    @Rule TemporaryFolder projectDir
+
+    def 'versions are looked up in the index'() {
+        setup:
+        def file = projectDir.newFile('bom.idx')
+        RecommendationIndex.write(file, 'netflix:platform:pom:1', 'abc123', [
+                'com.google.guava:guava'              : '18.0',
+                'com.fasterxml.jackson.core:jackson-core': '2.9.0',
+                'com.fasterxml.jackson.core:jackson-databind': '2.9.0',
+                'ünïcode:module'                      : '1.0-ß',
+                'no.version:module'                   : null,
+                'not-a-coordinate'                    : '1.0'
+        ])
+
+        when:
+        def index = RecommendationIndex.open(file)
+
+        then:
+        index.bomId == 'netflix:platform:pom:1'
+        index.pomHash == 'abc123'
+        index.size() == 4
+        index.getVersion('com.google.guava', 'guava') == '18.0'
+        index.getVersion('com.fasterxml.jackson.core', 'jackson-databind') == '2.9.0'
+        index.getVersion('ünïcode', 'module') == '1.0-ß'
+        index.getVersion('com.google.guava', 'jackson-core') == null
+        index.getVersion('no.version', 'module') == null
+        index.getVersion('missing', 'module') == null
+        index.toMap() == [
+                'com.fasterxml.jackson.core:jackson-core'    : '2.9.0',
+                'com.fasterxml.jackson.core:jackson-databind': '2.9.0',
+                'com.google.guava:guava'                     : '18.0',
+                'ünïcode:module'                             : '1.0-ß'
+        ]
+        index.coordinates == [
+                'com.fasterxml.jackson.core:jackson-core',
+                'com.fasterxml.jackson.core:jackson-databind',
+                'com.google.guava:guava',
+                'ünïcode:module'
+        ]
+    }
+
+    def 'an empty index recommends nothing'() {
+        setup:
+        def file = projectDir.newFile('bom.idx')
+        RecommendationIndex.write(file, 'netflix:platform:pom:1', 'abc123', [:])
+
+        expect:
+        RecommendationIndex.open(file).getVersion('com.google.guava', 'guava') == null
+        RecommendationIndex.open(file).coordinates.isEmpty()
+    }
+
+    def 'corrupt indexes are rejected'() {
+        setup:
+        def file = projectDir.newFile('bom.idx')
+        RecommendationIndex.write(file, 'netflix:platform:pom:1', 'abc123', ['com.google.guava:guava': '18.0'])
+        byte[] bytes = file.bytes
+        bytes[bytes.length - 12] ^= 1
+        file.bytes = bytes
+
+        when:
+        RecommendationIndex.open(file)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains('corrupt')
+    }
+
+    def 'files that are not indexes are rejected'() {
+        setup:
+        def file = projectDir.newFile('bom.pom')
+        file.text = '<project><modelVersion>4.0.0</modelVersion></project>'
+
+        when:
+        RecommendationIndex.open(file)
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains('not a recommendation index')
+    }
+}
@@ -0,0 +1,52 @@
+package netflix.nebula.dependency.recommender.provider
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class RecommendationPropertiesParserSpec extends Specification {
+    @Rule TemporaryFolder projectDir
+
+    @Unroll
+    def 'parses #expected'() {
+        expect:
+        RecommendationPropertiesParser.parse(properties) == expected
+
+        where:
+        properties                                  | expected
+        'com.google.guava:guava = 18.0'             | ['com.google.guava:guava': '18.0']
+        'com.google.guava:guava=18.0 # comment'     | ['com.google.guava:guava': '18.0']
+        'com.google.guava:guava 18.0#comment'       | ['com.google.guava:guava': '18.0']
+        '# comment\n! comment\n\n  a:b = 1.0  '     | ['a:b': '1.0']
+        'a:b = 1.0\r\nc:d = 2.0\re:f = 3.0'         | ['a:b': '1.0', 'c:d': '2.0', 'e:f': '3.0']
+        'a:b = \\\n    1.0'                         | ['a:b': '1.0']
+        'a:b \\\n  = 1.0'                           | ['a:b': '1.0']
+        '\\\n# comment\na:b = 1.0'                  | ['a:b': '1.0']
+        'a\\ b:c = \\u0031.0'                       | ['a b:c': '1.0']
+        'a:b = $c:d'                                | ['a:b': '$c:d']
+        'a:b = 1.0\na:b = 2.0'                      | ['a:b': '2.0']
+        'a:b ='                                     | ['a:b': '']
+        'a/b = 1.0\na/* = 2.0'                      | ['a:b': '1.0', 'a:*': '2.0']
+        'a:b = $c/d'                                | ['a:b': '$c:d']
+        'a:b = 1.0/beta'                            | ['a:b': '1.0/beta']
+    }
+
+    def 'large files are read whole'() {
+        setup:
+        def properties = new StringBuilder()
+        for (int i = 0; properties.length() < 1 << 20; i++) {
+            properties.append("example.group${i}:module${i} = 1.${i} # generated\n")
+        }
+        def file = projectDir.newFile('recommendations.properties')
+        file.text = properties
+
+        when:
+        def recommendations = file.withInputStream { RecommendationPropertiesParser.parse(it) }
+
+        then:
+        recommendations.size() == file.readLines().size()
+        recommendations['example.group0:module0'] == '1.0'
+        recommendations['example.group999:module999'] == '1.999'
+    }
+}
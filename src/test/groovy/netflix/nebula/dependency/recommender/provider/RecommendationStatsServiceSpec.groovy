@@ -0,0 +1,124 @@
+package netflix.nebula.dependency.recommender.provider
+
+import groovy.json.JsonSlurper
+import netflix.nebula.dependency.recommender.DependencyRecommendationsPlugin
+import netflix.nebula.dependency.recommender.RecommendationStatsTask
+import org.gradle.api.Project
+import org.gradle.testfixtures.ProjectBuilder
+import spock.lang.Specification
+
+class RecommendationStatsServiceSpec extends Specification {
+    Project project
+
+    def setup() {
+        project = newProject(true)
+    }
+
+    def 'lookups are counted per provider along with exact and glob matches'() {
+        setup:
+        project.dependencyRecommendations {
+            map name: 'versions', recommendations: ['commons-logging:commons-logging': '1.1', 'com.sun.jersey:*': '1.19']
+        }
+        def container = project.dependencyRecommendations
+
+        when:
+        container.getRecommendedVersion('commons-logging', 'commons-logging')
+        container.getRecommendedVersion('com.sun.jersey', 'jersey-core')
+        container.getRecommendedVersion('doesnotexist', 'doesnotexist')
+        def stats = container.stats.toMap()
+
+        then:
+        stats.lookups.lookups == 3
+        stats.lookups.hits == 2
+        stats.providers.versions.lookups == 3
+        stats.providers.versions.exactMatches == 1
+        stats.providers.versions.globMatches == 1
+    }
+
+    def 'glob lookups that are answered from the memo are counted'() {
+        setup:
+        project.dependencyRecommendations {
+            map name: 'versions', recommendations: ['com.sun.jersey:*': '1.19']
+        }
+        def container = project.dependencyRecommendations
+
+        when:
+        3.times { container.getRecommendedVersion('com.sun.jersey', 'jersey-core') }
+        def stats = container.stats.toMap()
+
+        then:
+        stats.providers.versions.memoMisses == 1
+        stats.providers.versions.memoHits == 2
+        stats.providers.versions.globMatches == 3
+    }
+
+    def 'lookups answered by a frozen container are counted apart from the provider calls'() {
+        setup:
+        project.dependencyRecommendations {
+            map name: 'versions', recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+        def container = project.dependencyRecommendations
+        container.freeze()
+
+        when:
+        3.times { container.getRecommendedVersion('commons-logging', 'commons-logging') }
+        def stats = container.stats.toMap()
+
+        then:
+        stats.lookups.lookups == 3
+        stats.lookups.memoMisses == 0
+        stats.lookups.memoHits == 3
+        stats.providers.versions.lookups == 1
+    }
+
+    def 'nothing is counted until the task graph is ready'() {
+        setup:
+        def other = newProject(null)
+        other.dependencyRecommendations {
+            map name: 'versions', recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+
+        when:
+        def version = other.dependencyRecommendations.getRecommendedVersion('commons-logging', 'commons-logging')
+
+        then:
+        version == '1.1'
+        other.dependencyRecommendations.stats == null
+    }
+
+    def 'the stats task writes json and a table'() {
+        setup:
+        project.dependencyRecommendations {
+            map name: 'versions', recommendations: ['commons-logging:commons-logging': '1.1']
+        }
+        project.dependencyRecommendations.getRecommendedVersion('commons-logging', 'commons-logging')
+        project.dependencyRecommendations.stats.eachDependency('compileClasspath').increment()
+        RecommendationStatsTask task = project.tasks.getByName(RecommendationStatsTask.NAME) as RecommendationStatsTask
+
+        when:
+        task.report()
+        def json = new JsonSlurper().parse(task.jsonReport.get().asFile)
+
+        then:
+        json.project == ':'
+        json.providers.versions.hits == 1
+        json.eachDependency.compileClasspath == 1
+        task.textReport.get().asFile.text.contains('versions')
+    }
+
+    /**
+     * @param enabled whether a stats task is in the task graph, which is never ready in a ProjectBuilder project, or
+     *                <code>null</code> to leave it undecided
+     */
+    private static Project newProject(Boolean enabled) {
+        def project = ProjectBuilder.builder().build()
+        if (enabled != null) {
+            project.gradle.sharedServices.registerIfAbsent(RecommendationStatsService.NAME, RecommendationStatsService) {
+                it.parameters.enabled.set(enabled)
+            }
+        }
+        project.apply plugin: 'java'
+        project.apply plugin: DependencyRecommendationsPlugin
+        project
+    }
+}
@@ -27,5 +27,6 @@ class MavenBomXmlGeneratorSpec extends ProjectSpec {
 
         then:
         noExceptionThrown()
+        project.tasks.findByName('generateDependencyManagementForRecommenderPublication') instanceof GenerateDependencyManagement
     }
 }